@@ -0,0 +1,49 @@
+package org.swiftbeard.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.swiftbeard.dto.TodoResponse;
+import org.swiftbeard.dto.UserResponse;
+import org.swiftbeard.entity.Todo;
+import org.swiftbeard.entity.User;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping done for every entity a resource returns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DtoMappingBenchmark {
+
+    private User user;
+    private Todo todo;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user(1);
+        todo = Fixtures.todo(1, user);
+    }
+
+    @Benchmark
+    public TodoResponse todoResponseFrom() {
+        return TodoResponse.from(todo);
+    }
+
+    @Benchmark
+    public UserResponse userResponseFrom() {
+        return UserResponse.from(user);
+    }
+}
@@ -0,0 +1,84 @@
+package org.swiftbeard.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.swiftbeard.dto.TodoResponse;
+import org.swiftbeard.entity.Todo;
+import org.swiftbeard.entity.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared benchmark data with the field sizes of typical API traffic.
+ */
+final class Fixtures {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000);
+
+    private Fixtures() {
+    }
+
+    /**
+     * Mapper configured like the application's, see quarkus.jackson.* in application.properties.
+     */
+    static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.id = id;
+        user.username = "user" + id;
+        user.email = "user" + id + "@example.com";
+        user.name = "Benchmark User " + id;
+        user.createdAt = BASE_TIME;
+        user.updatedAt = BASE_TIME.plusDays(1);
+        return user;
+    }
+
+    static Todo todo(long id, User user) {
+        Todo todo = new Todo();
+        todo.id = id;
+        todo.title = "Review pull request #" + id;
+        todo.description = "Check the query plan, the cache invalidation and the test coverage "
+                + "before approving change " + id + ".";
+        todo.completed = id % 3 == 0;
+        todo.user = user;
+        todo.dueDate = BASE_TIME.plusDays(id % 30);
+        todo.createdAt = BASE_TIME.plusSeconds(id);
+        todo.updatedAt = BASE_TIME.plusSeconds(id * 2);
+        return todo;
+    }
+
+    static List<TodoResponse> todoResponses(int size) {
+        User user = user(1);
+        List<TodoResponse> responses = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            responses.add(TodoResponse.from(todo(id, user)));
+        }
+        return responses;
+    }
+
+    static byte[] createRequestJson() {
+        return """
+                {"title":"Review pull request #42",\
+                "description":"Check the query plan, the cache invalidation and the test coverage before approving change 42.",\
+                "completed":false,"userId":1,"dueDate":"2025-03-21T09:26:53.589793"}"""
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] updateRequestJson() {
+        return """
+                {"title":"Review pull request #42 again","completed":true,"dueDate":"2025-03-28T17:00:00"}"""
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
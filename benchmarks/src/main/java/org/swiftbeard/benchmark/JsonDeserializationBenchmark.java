@@ -0,0 +1,55 @@
+package org.swiftbeard.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.swiftbeard.dto.TodoCreateRequest;
+import org.swiftbeard.dto.TodoUpdateRequest;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson deserialization of todo request bodies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class JsonDeserializationBenchmark {
+
+    private ObjectReader createReader;
+    private ObjectReader updateReader;
+    private byte[] createJson;
+    private byte[] updateJson;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Fixtures.objectMapper();
+        createReader = mapper.readerFor(TodoCreateRequest.class);
+        updateReader = mapper.readerFor(TodoUpdateRequest.class);
+        createJson = Fixtures.createRequestJson();
+        updateJson = Fixtures.updateRequestJson();
+    }
+
+    @Benchmark
+    public TodoCreateRequest readCreateRequest() throws IOException {
+        return createReader.readValue(createJson);
+    }
+
+    @Benchmark
+    public TodoUpdateRequest readUpdateRequest() throws IOException {
+        return updateReader.readValue(updateJson);
+    }
+}
@@ -0,0 +1,62 @@
+package org.swiftbeard.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.swiftbeard.dto.TodoResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of todo lists, including the LocalDateTime fields.
+ * 20 is a default page, 1000 a large page and 100k a full export.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "1000", "100000"})
+    public int size;
+
+    private List<TodoResponse> todos;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        todos = Fixtures.todoResponses(size);
+        writer = Fixtures.objectMapper().writerFor(new TypeReference<List<TodoResponse>>() { });
+    }
+
+    /**
+     * Buffers the whole document, as when the response body is materialized.
+     */
+    @Benchmark
+    public byte[] writeToBytes() throws IOException {
+        return writer.writeValueAsBytes(todos);
+    }
+
+    /**
+     * Streams to a sink, isolating encoder cost from buffer growth.
+     */
+    @Benchmark
+    public void writeToStream() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), todos);
+    }
+}
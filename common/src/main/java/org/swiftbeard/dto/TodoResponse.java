@@ -6,6 +6,8 @@ import java.time.LocalDateTime;
 
 /**
  * DTO for todo responses.
+ * In the reactive application the todo's user must already be fetched, as lazy
+ * loading is not available there.
  */
 public class TodoResponse {
 
@@ -34,6 +36,19 @@ public class TodoResponse {
         this.updatedAt = todo.updatedAt;
     }
 
+    public TodoResponse(Long id, String title, String description, Boolean completed, Long userId, String userName,
+                        LocalDateTime dueDate, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.completed = completed;
+        this.userId = userId;
+        this.userName = userName;
+        this.dueDate = dueDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     public static TodoResponse from(Todo todo) {
         return new TodoResponse(todo);
     }
@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
  */
 public class TodoUpdateRequest {
 
-    @Size(max = 200, message = "Title must not exceed 200 characters")
+    @Size(min = 1, max = 200, message = "Title must be between 1 and 200 characters")
     public String title;
 
     @Size(max = 1000, message = "Description must not exceed 1000 characters")
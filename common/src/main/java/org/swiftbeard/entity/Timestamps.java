@@ -0,0 +1,21 @@
+package org.swiftbeard.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Clock for entity timestamps.
+ * Truncates to the microsecond precision of the timestamp columns so the value
+ * held by a managed entity equals the value later read back from the database;
+ * entity tags are derived from updatedAt and must not change on a reload.
+ * Shared with the reactive application, so both write the same values.
+ */
+final class Timestamps {
+
+    private Timestamps() {
+    }
+
+    static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,84 @@
+package org.swiftbeard.exception;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Error bodies shared by the blocking and reactive applications, and the responses
+ * both exception handlers build from them.
+ */
+public final class ErrorResponses {
+
+    private ErrorResponses() {
+    }
+
+    /**
+     * Body of every error response other than validation failures.
+     * Resources set only {@code error}; the exception handlers add a {@code message}.
+     */
+    public static class ErrorResponse {
+        public String error;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public String message;
+
+        public ErrorResponse() {
+        }
+
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+    }
+
+    public static class ValidationErrorResponse {
+        public String error;
+        public Map<String, String> violations;
+    }
+
+    /**
+     * 400 with one message per violated property; several messages for a property are joined.
+     */
+    public static Response validationFailed(ConstraintViolationException exception) {
+        Map<String, String> errors = exception.getConstraintViolations().stream()
+                .collect(Collectors.toMap(
+                        violation -> getPropertyName(violation.getPropertyPath().toString()),
+                        ConstraintViolation::getMessage,
+                        (existing, replacement) -> existing + "; " + replacement
+                ));
+
+        ValidationErrorResponse error = new ValidationErrorResponse();
+        error.error = "Validation failed";
+        error.violations = errors;
+
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity(error)
+                .build();
+    }
+
+    public static Response internalError(Exception exception) {
+        return withMessage(Response.Status.INTERNAL_SERVER_ERROR, "Internal server error", exception.getMessage())
+                .build();
+    }
+
+    public static Response serviceUnavailable(String message, long retryAfterSeconds) {
+        return withMessage(Response.Status.SERVICE_UNAVAILABLE, "Service unavailable", message)
+                .header("Retry-After", retryAfterSeconds)
+                .build();
+    }
+
+    private static Response.ResponseBuilder withMessage(Response.Status status, String error, String message) {
+        ErrorResponse body = new ErrorResponse(error);
+        body.message = message;
+        return Response.status(status).entity(body);
+    }
+
+    private static String getPropertyName(String propertyPath) {
+        String[] parts = propertyPath.split("\\.");
+        return parts[parts.length - 1];
+    }
+}
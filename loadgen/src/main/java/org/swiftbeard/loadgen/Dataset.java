@@ -0,0 +1,192 @@
+package org.swiftbeard.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Users and todos created for a run, and the request builders scenarios use to address them.
+ * Seeding goes through the public API, so the same run works against H2 or PostgreSQL.
+ */
+final class Dataset {
+
+    private static final String[] FIRST_NAMES = {
+        "Ada", "Alan", "Barbara", "Donald", "Edsger", "Frances", "Grace", "John", "Ken", "Leslie",
+        "Linus", "Margaret", "Niklaus", "Radia", "Tony", "Vint"
+    };
+    private static final String[] LAST_NAMES = {
+        "Allen", "Cerf", "Dijkstra", "Hamilton", "Hoare", "Hopper", "Knuth", "Lamport", "Liskov",
+        "Lovelace", "McCarthy", "Perlman", "Ritchie", "Thompson", "Torvalds", "Turing", "Wirth"
+    };
+
+    /** Maximum todos per batch request, see TodoResource.MAX_BATCH_SIZE. */
+    private static final int SEED_BATCH_SIZE = 5000;
+
+    /** Most recent todo IDs kept for toggles; a power of two so the slot is a mask. */
+    private static final int TODO_POOL_SIZE = 1 << 16;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final Duration timeout;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private long[] userIds = new long[0];
+    private final AtomicLongArray todoIds = new AtomicLongArray(TODO_POOL_SIZE);
+    private final AtomicLong todoCount = new AtomicLong();
+    private final AtomicLong createdTitles = new AtomicLong();
+    private boolean batchSupported = true;
+
+    Dataset(HttpClient client, URI baseUrl, Duration timeout) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Create the users and their todos the scenarios run against.
+     */
+    void seed(int users, int todosPerUser) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(users);
+        for (int n = 0; n < users; n++) {
+            ObjectNode user = mapper.createObjectNode()
+                    .put("username", "lg" + runId + "u" + n)
+                    .put("email", "lg" + runId + "u" + n + "@loadgen.example.com")
+                    .put("name", FIRST_NAMES[n % FIRST_NAMES.length] + " " + LAST_NAMES[n % LAST_NAMES.length]);
+            JsonNode created = send(post("/api/v1/users", mapper.writeValueAsString(user)), 201);
+            ids.add(created.get("id").asLong());
+        }
+        userIds = ids.stream().mapToLong(Long::longValue).toArray();
+
+        ArrayNode batch = mapper.createArrayNode();
+        for (long userId : userIds) {
+            for (int n = 0; n < todosPerUser; n++) {
+                batch.add(todoNode(userId).put("completed", n % 3 == 0));
+                if (batch.size() == SEED_BATCH_SIZE) {
+                    seedTodos(batch);
+                    batch = mapper.createArrayNode();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            seedTodos(batch);
+        }
+    }
+
+    /**
+     * Create todos through the batch endpoint, or one by one against an API without it
+     * (the reactive application).
+     */
+    private void seedTodos(ArrayNode batch) throws IOException, InterruptedException {
+        if (batchSupported) {
+            HttpRequest request = post("/api/v1/todos/batch", mapper.writeValueAsString(batch));
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 404 && response.statusCode() != 405) {
+                for (JsonNode result : checked(request, response, 200).get("results")) {
+                    if (result.get("status").asInt() == 201) {
+                        addTodoId(result.get("id").asLong());
+                    }
+                }
+                return;
+            }
+            batchSupported = false;
+        }
+        for (JsonNode todo : batch) {
+            JsonNode created = send(post("/api/v1/todos", mapper.writeValueAsString(todo)), 201);
+            addTodoId(created.get("id").asLong());
+        }
+    }
+
+    private JsonNode send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        return checked(request, client.send(request, HttpResponse.BodyHandlers.ofString()), expectedStatus);
+    }
+
+    private JsonNode checked(HttpRequest request, HttpResponse<String> response, int expectedStatus) throws IOException {
+        if (response.statusCode() != expectedStatus) {
+            throw new IOException("Seeding failed: " + request.method() + " " + request.uri()
+                    + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return mapper.readTree(response.body());
+    }
+
+    /**
+     * Record the todo created by a {@link Scenario#CREATE} response.
+     */
+    void onCreated(String body) {
+        try {
+            addTodoId(mapper.readTree(body).get("id").asLong());
+        } catch (IOException e) {
+            // A malformed body is already counted by status; nothing to add to the pool
+        }
+    }
+
+    private void addTodoId(long id) {
+        todoIds.set((int) (todoCount.getAndIncrement() & (TODO_POOL_SIZE - 1)), id);
+    }
+
+    long randomUserId(Random random) {
+        return userIds[random.nextInt(userIds.length)];
+    }
+
+    long randomTodoId(Random random) {
+        long available = Math.min(todoCount.get(), TODO_POOL_SIZE);
+        return todoIds.get(random.nextInt((int) available));
+    }
+
+    String randomSearchTerm(Random random) {
+        String[] names = random.nextBoolean() ? FIRST_NAMES : LAST_NAMES;
+        String name = names[random.nextInt(names.length)];
+        // Prefixes and substrings like a user typing, in lower case as the search is case-insensitive
+        return name.substring(0, Math.min(name.length(), 3 + random.nextInt(3))).toLowerCase();
+    }
+
+    String newTodoJson(long userId) {
+        try {
+            return mapper.writeValueAsString(todoNode(userId));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ObjectNode todoNode(long userId) {
+        long n = createdTitles.incrementAndGet();
+        return mapper.createObjectNode()
+                .put("title", "Load test task " + n)
+                .put("description", "Created by load generator run " + runId)
+                .put("userId", userId);
+    }
+
+    HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    HttpRequest post(String path, String json) {
+        return builder(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    HttpRequest patch(String path) {
+        return builder(path).method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+    }
+}
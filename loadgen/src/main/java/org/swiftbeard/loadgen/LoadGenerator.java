@@ -0,0 +1,228 @@
+package org.swiftbeard.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the users/todos API.
+ *
+ * Requests arrive on a fixed schedule at the configured rate, each sent from its own
+ * virtual thread, so a slow response never delays the next arrival. Latency is measured
+ * from the scheduled arrival time rather than the send time, which avoids coordinated
+ * omission: a server stall shows up in the percentiles of every request queued behind it.
+ */
+public final class LoadGenerator {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadOptions options;
+    private final HttpClient client;
+    private final Dataset dataset;
+    private final Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private LoadGenerator(LoadOptions options, HttpClient client) {
+        this.options = options;
+        this.client = client;
+        this.dataset = new Dataset(client, options.baseUrl(), options.timeout());
+
+        scenarios = options.mix().keySet().toArray(new Scenario[0]);
+        cumulativeWeights = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += options.mix().get(scenarios[i]);
+            cumulativeWeights[i] = total;
+            stats.put(scenarios[i], new ScenarioStats(scenarios[i]));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(options.timeout())
+                     .build()) {
+            new LoadGenerator(options, client).run(executor);
+        }
+    }
+
+    private void run(ExecutorService executor) throws IOException, InterruptedException {
+        System.out.printf("Seeding %d users with %d todos each at %s%n",
+                options.users(), options.todosPerUser(), options.baseUrl());
+        dataset.seed(options.users(), options.todosPerUser());
+
+        System.out.printf("Running %.0f req/s: %ds warmup, %ds recorded, mix %s%n",
+                options.rate(), options.warmup().toSeconds(), options.duration().toSeconds(), options.mix());
+
+        long intervalNanos = Math.round(TimeUnit.SECONDS.toNanos(1) / options.rate());
+        long start = System.nanoTime();
+        long recordFrom = start + options.warmup().toNanos();
+        long end = recordFrom + options.duration().toNanos();
+        long scheduled = 0;
+
+        for (long arrival = 0; ; arrival++) {
+            // Computed from the start, not the previous arrival, so send delays never accumulate
+            long intended = start + arrival * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            // Warmup arrivals are sent but not recorded, even when they complete after it ends
+            boolean recorded = intended >= recordFrom;
+            sleepUntil(intended);
+
+            Scenario scenario = pickScenario();
+            scheduled++;
+            if (inFlight.incrementAndGet() > options.maxInFlight()) {
+                inFlight.decrementAndGet();
+                if (recorded) {
+                    stats.get(scenario).recordRejected();
+                }
+                continue;
+            }
+            executor.execute(() -> call(scenario, intended, recorded));
+        }
+
+        System.out.printf("Scheduled %d requests, waiting for %d in flight%n", scheduled, inFlight.get());
+        long deadline = System.nanoTime() + options.timeout().toNanos() * 2;
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        report();
+    }
+
+    private void call(Scenario scenario, long intended, boolean recorded) {
+        ScenarioStats scenarioStats = recorded ? stats.get(scenario) : null;
+        long sent = System.nanoTime();
+        try {
+            HttpRequest request = scenario.request(dataset, ThreadLocalRandom.current());
+            boolean success;
+            if (scenario.readsBody()) {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                success = response.statusCode() < 400;
+                if (success) {
+                    dataset.onCreated(response.body());
+                }
+            } else {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                success = response.statusCode() < 400;
+            }
+            if (scenarioStats != null) {
+                scenarioStats.record(intended, sent, System.nanoTime(), success);
+            }
+        } catch (IOException e) {
+            if (scenarioStats != null) {
+                scenarioStats.record(intended, sent, System.nanoTime(), false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private Scenario pickScenario() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private void report() throws IOException {
+        double seconds = options.duration().toNanos() / 1e9;
+        List<ScenarioStats.Snapshot> snapshots = new ArrayList<>();
+        Histogram allResponses = new Histogram(3);
+        Histogram allService = new Histogram(3);
+        long allErrors = 0;
+        for (ScenarioStats scenarioStats : stats.values()) {
+            ScenarioStats.Snapshot snapshot = scenarioStats.snapshot();
+            snapshots.add(snapshot);
+            allResponses.add(snapshot.responseTime());
+            allService.add(snapshot.serviceTime());
+            allErrors += snapshot.errors();
+        }
+
+        PrintStream out = System.out;
+        out.println();
+        out.println("Response time in ms, measured from the scheduled arrival (service p99 measured from send)");
+        out.printf("%-8s %9s %7s %9s %9s %9s %9s %9s %9s %12s%n",
+                "scenario", "count", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max", "service p99");
+        for (ScenarioStats.Snapshot snapshot : snapshots) {
+            printRow(out, snapshot.scenario().label, snapshot.responseTime(), snapshot.serviceTime(),
+                    snapshot.errors(), seconds);
+        }
+        printRow(out, "all", allResponses, allService, allErrors, seconds);
+
+        if (options.histogramDir() != null) {
+            Files.createDirectories(options.histogramDir());
+            for (ScenarioStats.Snapshot snapshot : snapshots) {
+                writeHistogram(snapshot.scenario().label, snapshot.responseTime());
+            }
+            writeHistogram("all", allResponses);
+            out.println("Percentile distributions written to " + options.histogramDir().toAbsolutePath());
+        }
+    }
+
+    private static void printRow(PrintStream out, String label, Histogram responses, Histogram service,
+                                 long errors, double seconds) {
+        out.printf("%-8s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                label,
+                responses.getTotalCount(),
+                errors,
+                responses.getTotalCount() / seconds,
+                millis(responses.getValueAtPercentile(50)),
+                millis(responses.getValueAtPercentile(90)),
+                millis(responses.getValueAtPercentile(99)),
+                millis(responses.getValueAtPercentile(99.9)),
+                millis(responses.getMaxValue()),
+                millis(service.getValueAtPercentile(99)));
+    }
+
+    private void writeHistogram(String label, Histogram histogram) throws IOException {
+        try (PrintStream file = new PrintStream(
+                Files.newOutputStream(options.histogramDir().resolve(label + ".hgrm")))) {
+            histogram.outputPercentileDistribution(file, MICROS_PER_MILLI);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+}
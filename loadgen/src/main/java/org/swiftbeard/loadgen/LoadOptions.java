@@ -0,0 +1,103 @@
+package org.swiftbeard.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Command line options of the load generator.
+ */
+record LoadOptions(
+        URI baseUrl,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        int users,
+        int todosPerUser,
+        Map<Scenario, Integer> mix,
+        Duration timeout,
+        int maxInFlight,
+        Path histogramDir) {
+
+    static final String USAGE = """
+            Usage: java -jar loadgen/target/loadgen.jar [options]
+              --base-url URL        API to load (default http://localhost:8080)
+              --rate N              requests per second across all scenarios (default 200)
+              --warmup SECONDS      load applied before recording starts (default 10)
+              --duration SECONDS    recorded load (default 60)
+              --users N             users seeded before the run (default 50)
+              --todos-per-user N    todos seeded per user (default 20)
+              --mix NAME=WEIGHT,..  scenario weights (default list=25,user=25,create=15,toggle=15,stats=10,search=10)
+              --timeout SECONDS     per-request timeout (default 10)
+              --max-in-flight N     outstanding requests before new arrivals count as errors (default 10000)
+              --histogram-dir DIR   also write one .hgrm percentile file per scenario
+            """;
+
+    static LoadOptions parse(String[] args) {
+        URI baseUrl = URI.create("http://localhost:8080");
+        double rate = 200;
+        long warmup = 10;
+        long duration = 60;
+        int users = 50;
+        int todosPerUser = 20;
+        String mix = "list=25,user=25,create=15,toggle=15,stats=10,search=10";
+        long timeout = 10;
+        int maxInFlight = 10_000;
+        Path histogramDir = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help") || option.equals("-h")) {
+                throw new IllegalArgumentException(USAGE);
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option + "\n" + USAGE);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--base-url" -> baseUrl = URI.create(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--warmup" -> warmup = Long.parseLong(value);
+                case "--duration" -> duration = Long.parseLong(value);
+                case "--users" -> users = Integer.parseInt(value);
+                case "--todos-per-user" -> todosPerUser = Integer.parseInt(value);
+                case "--mix" -> mix = value;
+                case "--timeout" -> timeout = Long.parseLong(value);
+                case "--max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                case "--histogram-dir" -> histogramDir = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + option + "\n" + USAGE);
+            }
+        }
+
+        if (rate <= 0 || duration <= 0 || warmup < 0 || users < 1 || todosPerUser < 1 || timeout < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("Rate, duration, users, todos per user, timeout and max in flight "
+                    + "must be positive and warmup must not be negative\n" + USAGE);
+        }
+
+        return new LoadOptions(baseUrl, rate, Duration.ofSeconds(warmup), Duration.ofSeconds(duration),
+                users, todosPerUser, parseMix(mix), Duration.ofSeconds(timeout), maxInFlight, histogramDir);
+    }
+
+    private static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            if (weight > 0) {
+                weights.put(Scenario.byName(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix must give at least one scenario a positive weight");
+        }
+        return weights;
+    }
+}
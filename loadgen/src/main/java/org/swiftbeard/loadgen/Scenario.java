@@ -0,0 +1,92 @@
+package org.swiftbeard.loadgen;
+
+import java.net.http.HttpRequest;
+import java.util.Random;
+
+/**
+ * API interactions replayed by the load generator, each mirroring a typical client call.
+ */
+enum Scenario {
+
+    /** First pages of the todo list, the most common read. */
+    LIST("list") {
+        @Override
+        HttpRequest request(Dataset data, Random random) {
+            return data.get("/api/v1/todos?page=" + random.nextInt(5) + "&size=20");
+        }
+    },
+
+    /** A user's todo list, optionally filtered by completion. */
+    BY_USER("user") {
+        @Override
+        HttpRequest request(Dataset data, Random random) {
+            String filter = switch (random.nextInt(3)) {
+                case 0 -> "&completed=false";
+                case 1 -> "&completed=true";
+                default -> "";
+            };
+            return data.get("/api/v1/todos/user/" + data.randomUserId(random) + "?size=20" + filter);
+        }
+    },
+
+    /** A new todo; its ID joins the pool toggled by {@link #TOGGLE}. */
+    CREATE("create") {
+        @Override
+        HttpRequest request(Dataset data, Random random) {
+            return data.post("/api/v1/todos", data.newTodoJson(data.randomUserId(random)));
+        }
+
+        @Override
+        boolean readsBody() {
+            return true;
+        }
+    },
+
+    /** Completion toggle of an existing todo. */
+    TOGGLE("toggle") {
+        @Override
+        HttpRequest request(Dataset data, Random random) {
+            return data.patch("/api/v1/todos/" + data.randomTodoId(random) + "/toggle");
+        }
+    },
+
+    /** Per-user todo statistics. */
+    STATS("stats") {
+        @Override
+        HttpRequest request(Dataset data, Random random) {
+            return data.get("/api/v1/users/" + data.randomUserId(random) + "/stats");
+        }
+    },
+
+    /** Ranked user search by a name fragment. */
+    SEARCH("search") {
+        @Override
+        HttpRequest request(Dataset data, Random random) {
+            return data.get("/api/v1/users?size=20&search=" + data.randomSearchTerm(random));
+        }
+    };
+
+    final String label;
+
+    Scenario(String label) {
+        this.label = label;
+    }
+
+    abstract HttpRequest request(Dataset data, Random random);
+
+    /**
+     * Whether the response body is needed after the call; other bodies are read and discarded.
+     */
+    boolean readsBody() {
+        return false;
+    }
+
+    static Scenario byName(String label) {
+        for (Scenario scenario : values()) {
+            if (scenario.label.equals(label)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + label);
+    }
+}
@@ -0,0 +1,47 @@
+package org.swiftbeard.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one scenario, recorded in microseconds from any number of threads.
+ */
+final class ScenarioStats {
+
+    final Scenario scenario;
+
+    /** From the scheduled arrival time, so queueing behind a stall is measured. */
+    private final Recorder responseTime = new Recorder(3);
+    /** From the moment the request was actually sent, as a closed-loop tool would report. */
+    private final Recorder serviceTime = new Recorder(3);
+    private final LongAdder errors = new LongAdder();
+
+    ScenarioStats(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    void record(long intendedNanos, long sentNanos, long completedNanos, boolean success) {
+        responseTime.recordValue(Math.max(1, (completedNanos - intendedNanos) / 1000));
+        serviceTime.recordValue(Math.max(1, (completedNanos - sentNanos) / 1000));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Count an arrival that could not be sent because too many requests were outstanding.
+     */
+    void recordRejected() {
+        errors.increment();
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(scenario, responseTime.getIntervalHistogram(),
+                serviceTime.getIntervalHistogram(), errors.sum());
+    }
+
+    record Snapshot(Scenario scenario, Histogram responseTime, Histogram serviceTime, long errors) {
+    }
+}
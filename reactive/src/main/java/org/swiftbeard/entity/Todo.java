@@ -0,0 +1,122 @@
+package org.swiftbeard.entity;
+
+import io.quarkus.hibernate.reactive.panache.PanacheEntityBase;
+import io.quarkus.panache.common.Parameters;
+import io.smallrye.mutiny.Uni;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Todo entity for the reactive variant.
+ * Maps the same todos table and ID sequence as the blocking application.
+ * Lazy associations cannot be initialized implicitly in Hibernate Reactive,
+ * so every query that needs the owner fetches it with a join.
+ */
+@Entity
+@Table(name = "todos", indexes = {
+    @Index(name = "idx_todo_user_created_at_id", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_todo_user_completed_created_at_id", columnList = "user_id, completed, created_at, id"),
+    @Index(name = "idx_todo_completed_created_at_id", columnList = "completed, created_at, id"),
+    @Index(name = "idx_todo_created_at_id", columnList = "created_at, id")
+})
+public class Todo extends PanacheEntityBase {
+
+    public static final int ID_ALLOCATION_SIZE = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_SEQ", allocationSize = ID_ALLOCATION_SIZE)
+    public Long id;
+
+    @Column(nullable = false, length = 200)
+    public String title;
+
+    @Column(length = 1000)
+    public String description;
+
+    @Column(nullable = false)
+    public Boolean completed = false;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    public User user;
+
+    @Column(name = "due_date")
+    public LocalDateTime dueDate;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    public LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    public LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = Timestamps.now();
+        createdAt = now;
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Timestamps.now();
+    }
+
+    /**
+     * Find a todo with its owner fetched in the same statement.
+     */
+    public static Uni<Todo> findByIdWithUser(Long id) {
+        return find("from Todo t join fetch t.user where t.id = ?1", id).firstResult();
+    }
+
+    /**
+     * One page of todos, optionally filtered, oldest first, with owners fetched by join.
+     */
+    public static Uni<List<Todo>> findPage(Long userId, Boolean completed, int page, int size) {
+        Parameters params = new Parameters();
+        String where = filterConditions(userId, completed, params);
+        return find("from Todo t join fetch t.user" + (where.isEmpty() ? "" : " where " + where)
+                        + " order by t.createdAt, t.id", params)
+                .page(page, size)
+                .list();
+    }
+
+    public static Uni<Long> countFiltered(Long userId, Boolean completed) {
+        Parameters params = new Parameters();
+        String where = filterConditions(userId, completed, params);
+        return where.isEmpty() ? count() : count("from Todo t where " + where, params);
+    }
+
+    public static Uni<Long> countByUserIdAndCompleted(Long userId, boolean completed) {
+        return count("user.id = ?1 and completed = ?2", userId, completed);
+    }
+
+    public static Uni<Long> countByUserId(Long userId) {
+        return count("user.id", userId);
+    }
+
+    /**
+     * Delete a user's completed todos and take them off the user's counters.
+     */
+    public static Uni<Long> deleteCompletedByUserId(Long userId) {
+        return delete("user.id = ?1 and completed = true", userId).call(deleted -> deleted > 0
+                ? UserTodoCounts.adjust(userId, -deleted, -deleted)
+                : Uni.createFrom().voidItem());
+    }
+
+    private static String filterConditions(Long userId, Boolean completed, Parameters params) {
+        List<String> conditions = new ArrayList<>();
+        if (userId != null) {
+            conditions.add("t.user.id = :userId");
+            params.and("userId", userId);
+        }
+        if (completed != null) {
+            conditions.add("t.completed = :completed");
+            params.and("completed", completed);
+        }
+        return String.join(" and ", conditions);
+    }
+}
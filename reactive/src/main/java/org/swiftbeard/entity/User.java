@@ -0,0 +1,109 @@
+package org.swiftbeard.entity;
+
+import io.quarkus.hibernate.reactive.panache.PanacheEntity;
+import io.quarkus.panache.common.Parameters;
+import io.smallrye.mutiny.Uni;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * User entity for the reactive variant.
+ * Maps the same users table as the blocking application; queries return
+ * {@link Uni} and run on the Vert.x event loop through the reactive PostgreSQL client.
+ */
+@Entity
+@Table(name = "users", indexes = {
+    @Index(name = "idx_user_email", columnList = "email"),
+    @Index(name = "idx_user_username", columnList = "username")
+})
+public class User extends PanacheEntity {
+
+    private static final String MATCHES =
+            "lower(u.name) like :pattern escape '!' or lower(u.username) like :pattern escape '!'"
+                    + " or lower(u.email) like :pattern escape '!'";
+
+    private static final String MATCH_TYPE_RANK =
+            "case when lower(u.username) = :term or lower(u.email) = :term or lower(u.name) = :term then 3"
+                    + " when lower(u.username) like :prefix escape '!' or lower(u.email) like :prefix escape '!'"
+                    + " or lower(u.name) like :prefix escape '!' then 2"
+                    + " else 1 end";
+
+    @Column(unique = true, nullable = false, length = 50)
+    public String username;
+
+    @Column(unique = true, nullable = false)
+    public String email;
+
+    @Column(nullable = false, length = 100)
+    public String name;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    public LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    public LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = Timestamps.now();
+        createdAt = now;
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Timestamps.now();
+    }
+
+    public static Uni<User> findByUsername(String username) {
+        return find("username", username).firstResult();
+    }
+
+    public static Uni<User> findByEmail(String email) {
+        return find("email", email).firstResult();
+    }
+
+    /**
+     * Search name, username and email for a substring, as the blocking application does:
+     * exact matches first, then prefix matches, then other substring matches.
+     */
+    public static Uni<List<User>> search(String term, int page, int size) {
+        String normalized = normalize(term);
+        return find("from User u where " + MATCHES + " order by " + MATCH_TYPE_RANK + " desc, u.id",
+                        Parameters.with("pattern", "%" + escapeLike(normalized) + "%")
+                                .and("term", normalized)
+                                .and("prefix", escapeLike(normalized) + "%"))
+                .page(page, size)
+                .list();
+    }
+
+    public static Uni<Long> countSearch(String term) {
+        return count("from User u where " + MATCHES,
+                Parameters.with("pattern", "%" + escapeLike(normalize(term)) + "%"));
+    }
+
+    /**
+     * Delete a user, their todo counters and all of their todos with bulk statements.
+     *
+     * @return true if the user existed
+     */
+    public static Uni<Boolean> deleteWithTodos(Long id) {
+        return Todo.delete("user.id", id)
+                .chain(() -> UserTodoCounts.delete("userId", id))
+                .chain(() -> delete("id", id))
+                .map(deleted -> deleted > 0);
+    }
+
+    private static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Search terms are literal: '%' and '_' typed by the user must not act as wildcards.
+    // '!' is the escape character because HQL string literals treat backslashes specially.
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
@@ -0,0 +1,51 @@
+package org.swiftbeard.entity;
+
+import io.quarkus.hibernate.reactive.panache.PanacheEntityBase;
+import io.smallrye.mutiny.Uni;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Per-user todo counters and todo collection version, shared with the blocking application.
+ * The blocking application reads user stats from this table and uses the version as the
+ * ETag of the per-user todo lists, so every reactive write to todos maintains the owner's
+ * row in the same transaction, exactly as the blocking write paths do.
+ */
+@Entity
+@Table(name = "user_todo_counts")
+public class UserTodoCounts extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "user_id")
+    public Long userId;
+
+    @Column(name = "total_todos", nullable = false)
+    public long totalTodos;
+
+    @Column(name = "completed_todos", nullable = false)
+    public long completedTodos;
+
+    @ColumnDefault("0")
+    @Column(name = "todos_version", nullable = false)
+    public long todosVersion;
+
+    /**
+     * Create the empty counter row of a new user, in the transaction inserting the user.
+     */
+    public static Uni<UserTodoCounts> createFor(Long userId) {
+        UserTodoCounts counts = new UserTodoCounts();
+        counts.userId = userId;
+        return counts.persist();
+    }
+
+    /**
+     * Apply a change in the user's todo totals and bump the collection version.
+     * Deltas of zero only bump the version, for writes that change todos without
+     * changing the totals.
+     */
+    public static Uni<Integer> adjust(Long userId, long totalDelta, long completedDelta) {
+        return update("totalTodos = totalTodos + ?1, completedTodos = completedTodos + ?2,"
+                        + " todosVersion = todosVersion + 1 where userId = ?3",
+                totalDelta, completedDelta, userId);
+    }
+}
@@ -0,0 +1,34 @@
+package org.swiftbeard.exception;
+
+import jakarta.validation.ConstraintViolationException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Global exception handler for the application.
+ * Provides consistent error responses across all endpoints, in the shape
+ * defined by {@link ErrorResponses}.
+ */
+@Provider
+public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
+
+    @Override
+    public Response toResponse(Exception exception) {
+        // Routing and content negotiation failures (404, 405, 415...) already carry their response
+        if (exception instanceof WebApplicationException webApplicationException) {
+            return webApplicationException.getResponse();
+        }
+
+        if (exception instanceof ConstraintViolationException) {
+            return ErrorResponses.validationFailed((ConstraintViolationException) exception);
+        }
+
+        // Log the exception (in production, use proper logging)
+        System.err.println("Unhandled exception: " + exception.getMessage());
+        exception.printStackTrace();
+
+        return ErrorResponses.internalError(exception);
+    }
+}
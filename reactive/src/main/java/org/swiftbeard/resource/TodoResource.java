@@ -0,0 +1,221 @@
+package org.swiftbeard.resource;
+
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.smallrye.mutiny.Uni;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.swiftbeard.dto.TodoCreateRequest;
+import org.swiftbeard.dto.TodoResponse;
+import org.swiftbeard.dto.TodoUpdateRequest;
+import org.swiftbeard.entity.Todo;
+import org.swiftbeard.entity.User;
+import org.swiftbeard.entity.UserTodoCounts;
+import org.swiftbeard.exception.ErrorResponses.ErrorResponse;
+
+import java.util.stream.Collectors;
+
+/**
+ * Reactive REST Resource for Todo CRUD operations.
+ * Same paths and payloads as the blocking resource; handlers run on the event
+ * loop and never block a thread while waiting for the database. Every write
+ * maintains the owner's row in user_todo_counts, which the blocking application
+ * reads for stats and list ETags.
+ */
+@Path("/api/v1/todos")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class TodoResource {
+
+    /**
+     * Get all todos with optional pagination and filtering.
+     * GET /api/v1/todos?page=0&size=20&userId=1&completed=true
+     */
+    @GET
+    @WithSession
+    public Uni<Response> getAllTodos(
+            @QueryParam("page") @DefaultValue("0") @Min(0) int page,
+            @QueryParam("size") @DefaultValue("20") @Min(1) int size,
+            @QueryParam("userId") Long userId,
+            @QueryParam("completed") Boolean completed) {
+        return listTodos(userId, completed, page, size);
+    }
+
+    /**
+     * Get all todos for a specific user with optional pagination.
+     * GET /api/v1/todos/user/{userId}?page=0&size=20&completed=false
+     */
+    @GET
+    @Path("/user/{userId}")
+    @WithSession
+    public Uni<Response> getTodosByUserId(
+            @PathParam("userId") Long userId,
+            @QueryParam("completed") Boolean completed,
+            @QueryParam("page") @DefaultValue("0") @Min(0) int page,
+            @QueryParam("size") @DefaultValue("20") @Min(1) int size) {
+        return User.<User>findById(userId).chain(user -> user == null
+                ? Uni.createFrom().item(userNotFound(userId))
+                : listTodos(userId, completed, page, size));
+    }
+
+    /**
+     * Get a todo by ID.
+     * GET /api/v1/todos/{id}
+     */
+    @GET
+    @Path("/{id}")
+    @WithSession
+    public Uni<Response> getTodoById(@PathParam("id") Long id) {
+        return Todo.findByIdWithUser(id).map(todo -> todo == null
+                ? notFound(id)
+                : Response.ok(TodoResponse.from(todo)).build());
+    }
+
+    /**
+     * Create a new todo.
+     * POST /api/v1/todos
+     */
+    @POST
+    @WithTransaction
+    public Uni<Response> createTodo(@Valid TodoCreateRequest request) {
+        return User.<User>findById(request.userId).chain(user -> {
+            if (user == null) {
+                return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ErrorResponse("User not found with id: " + request.userId))
+                        .build());
+            }
+
+            Todo todo = new Todo();
+            todo.title = request.title;
+            todo.description = request.description;
+            todo.completed = request.completed != null ? request.completed : false;
+            todo.user = user;
+            todo.dueDate = request.dueDate;
+
+            return todo.<Todo>persist()
+                    .call(created -> UserTodoCounts.adjust(user.id, 1, created.completed ? 1 : 0))
+                    .map(created -> Response.status(Response.Status.CREATED)
+                            .entity(TodoResponse.from(created))
+                            .build());
+        });
+    }
+
+    /**
+     * Update an existing todo.
+     * PUT /api/v1/todos/{id}
+     */
+    @PUT
+    @Path("/{id}")
+    @WithTransaction
+    public Uni<Response> updateTodo(@PathParam("id") Long id, @Valid TodoUpdateRequest request) {
+        return Todo.findByIdWithUser(id).chain(todo -> {
+            if (todo == null) {
+                return Uni.createFrom().item(notFound(id));
+            }
+
+            boolean wasCompleted = todo.completed;
+            if (request.title != null) {
+                todo.title = request.title;
+            }
+            if (request.description != null) {
+                todo.description = request.description;
+            }
+            if (request.completed != null) {
+                todo.completed = request.completed;
+            }
+            if (request.dueDate != null) {
+                todo.dueDate = request.dueDate;
+            }
+
+            long completedDelta = todo.completed == wasCompleted ? 0 : (todo.completed ? 1 : -1);
+            // Flush so the response carries the updatedAt set by the update
+            return todo.<Todo>persistAndFlush()
+                    .call(updated -> UserTodoCounts.adjust(todo.user.id, 0, completedDelta))
+                    .map(updated -> Response.ok(TodoResponse.from(updated)).build());
+        });
+    }
+
+    /**
+     * Toggle todo completion status.
+     * PATCH /api/v1/todos/{id}/toggle
+     */
+    @PATCH
+    @Path("/{id}/toggle")
+    @WithTransaction
+    public Uni<Response> toggleTodoCompletion(@PathParam("id") Long id) {
+        return Todo.findByIdWithUser(id).chain(todo -> {
+            if (todo == null) {
+                return Uni.createFrom().item(notFound(id));
+            }
+            todo.completed = !todo.completed;
+            return todo.<Todo>persistAndFlush()
+                    .call(updated -> UserTodoCounts.adjust(todo.user.id, 0, todo.completed ? 1 : -1))
+                    .map(updated -> Response.ok(TodoResponse.from(updated)).build());
+        });
+    }
+
+    /**
+     * Delete a todo by ID.
+     * DELETE /api/v1/todos/{id}
+     */
+    @DELETE
+    @Path("/{id}")
+    @WithTransaction
+    public Uni<Response> deleteTodo(@PathParam("id") Long id) {
+        return Todo.findByIdWithUser(id).chain(todo -> todo == null
+                ? Uni.createFrom().item(notFound(id))
+                : todo.delete()
+                        .chain(() -> UserTodoCounts.adjust(todo.user.id, -1, todo.completed ? -1 : 0))
+                        .map(adjusted -> Response.noContent().build()));
+    }
+
+    /**
+     * Delete all completed todos for a user.
+     * DELETE /api/v1/todos/user/{userId}/completed
+     */
+    @DELETE
+    @Path("/user/{userId}/completed")
+    @WithTransaction
+    public Uni<Response> deleteCompletedTodos(@PathParam("userId") Long userId) {
+        return User.<User>findById(userId).chain(user -> user == null
+                ? Uni.createFrom().item(userNotFound(userId))
+                : Todo.deleteCompletedByUserId(userId).map(deletedCount -> {
+                    DeleteResponse response = new DeleteResponse();
+                    response.message = "Deleted " + deletedCount + " completed todos";
+                    response.deletedCount = deletedCount;
+                    return Response.ok(response).build();
+                }));
+    }
+
+    private Uni<Response> listTodos(Long userId, Boolean completed, int page, int size) {
+        return Todo.findPage(userId, completed, page, size)
+                .chain(todos -> Todo.countFiltered(userId, completed).map(total -> Response.ok(todos.stream()
+                                .map(TodoResponse::from)
+                                .collect(Collectors.toList()))
+                        .header("X-Total-Count", total)
+                        .header("X-Page", page)
+                        .header("X-Page-Size", size)
+                        .build()));
+    }
+
+    private static Response notFound(Long id) {
+        return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse("Todo not found with id: " + id))
+                .build();
+    }
+
+    private static Response userNotFound(Long userId) {
+        return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse("User not found with id: " + userId))
+                .build();
+    }
+
+    // Inner classes for responses
+    public static class DeleteResponse {
+        public String message;
+        public long deletedCount;
+    }
+}
@@ -0,0 +1,232 @@
+package org.swiftbeard.resource;
+
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.quarkus.panache.common.Sort;
+import io.smallrye.mutiny.Uni;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.swiftbeard.dto.UserCreateRequest;
+import org.swiftbeard.dto.UserResponse;
+import org.swiftbeard.dto.UserUpdateRequest;
+import org.swiftbeard.entity.Todo;
+import org.swiftbeard.entity.User;
+import org.swiftbeard.entity.UserTodoCounts;
+import org.swiftbeard.exception.ErrorResponses.ErrorResponse;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reactive REST Resource for User CRUD operations.
+ * Same paths and payloads as the blocking resource; handlers run on the event
+ * loop and never block a thread while waiting for the database. A reactive
+ * session runs one statement at a time, so dependent queries are chained.
+ */
+@Path("/api/v1/users")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class UserResource {
+
+    /**
+     * Get all users with optional pagination.
+     * GET /api/v1/users?page=0&size=20
+     */
+    @GET
+    @WithSession
+    public Uni<Response> getAllUsers(
+            @QueryParam("page") @DefaultValue("0") @Min(0) int page,
+            @QueryParam("size") @DefaultValue("20") @Min(1) int size,
+            @QueryParam("search") String search) {
+
+        boolean searching = search != null && !search.isBlank();
+        Uni<List<User>> users = searching
+                ? User.search(search, page, size)
+                : User.findAll(Sort.by("id")).page(page, size).list();
+        Uni<Long> totalCount = searching ? User.countSearch(search) : User.count();
+
+        return users.chain(list -> totalCount.map(total -> Response.ok(list.stream()
+                        .map(UserResponse::from)
+                        .collect(Collectors.toList()))
+                .header("X-Total-Count", total)
+                .header("X-Page", page)
+                .header("X-Page-Size", size)
+                .build()));
+    }
+
+    /**
+     * Get a user by ID.
+     * GET /api/v1/users/{id}
+     */
+    @GET
+    @Path("/{id}")
+    @WithSession
+    public Uni<Response> getUserById(@PathParam("id") Long id) {
+        return User.<User>findById(id).map(user -> user == null
+                ? notFound("User not found with id: " + id)
+                : Response.ok(UserResponse.from(user)).build());
+    }
+
+    /**
+     * Get a user by username.
+     * GET /api/v1/users/username/{username}
+     */
+    @GET
+    @Path("/username/{username}")
+    @WithSession
+    public Uni<Response> getUserByUsername(@PathParam("username") String username) {
+        return User.findByUsername(username).map(user -> user == null
+                ? notFound("User not found with username: " + username)
+                : Response.ok(UserResponse.from(user)).build());
+    }
+
+    /**
+     * Create a new user.
+     * POST /api/v1/users
+     */
+    @POST
+    @WithTransaction
+    public Uni<Response> createUser(@Valid UserCreateRequest request) {
+        return User.findByUsername(request.username).chain(existingUsername -> {
+            if (existingUsername != null) {
+                return Uni.createFrom().item(conflict("Username already exists: " + request.username));
+            }
+            return User.findByEmail(request.email).chain(existingEmail -> {
+                if (existingEmail != null) {
+                    return Uni.createFrom().item(conflict("Email already exists: " + request.email));
+                }
+
+                User user = new User();
+                user.username = request.username;
+                user.email = request.email;
+                user.name = request.name;
+
+                return user.<User>persist()
+                        .call(created -> UserTodoCounts.createFor(created.id))
+                        .map(created -> Response.status(Response.Status.CREATED)
+                                .entity(UserResponse.from(created))
+                                .build());
+            });
+        });
+    }
+
+    /**
+     * Update an existing user.
+     * PUT /api/v1/users/{id}
+     */
+    @PUT
+    @Path("/{id}")
+    @WithTransaction
+    public Uni<Response> updateUser(@PathParam("id") Long id, @Valid UserUpdateRequest request) {
+        return User.<User>findById(id).chain(user -> {
+            if (user == null) {
+                return Uni.createFrom().item(notFound("User not found with id: " + id));
+            }
+
+            boolean usernameChanged = request.username != null && !request.username.equals(user.username);
+            boolean emailChanged = request.email != null && !request.email.equals(user.email);
+
+            Uni<User> usernameOwner = usernameChanged
+                    ? User.findByUsername(request.username)
+                    : Uni.createFrom().nullItem();
+
+            return usernameOwner.chain(existingUsername -> {
+                if (existingUsername != null && !existingUsername.id.equals(id)) {
+                    return Uni.createFrom().item(conflict("Username already exists: " + request.username));
+                }
+                Uni<User> emailOwner = emailChanged
+                        ? User.findByEmail(request.email)
+                        : Uni.createFrom().nullItem();
+
+                return emailOwner.chain(existingEmail -> {
+                    if (existingEmail != null && !existingEmail.id.equals(id)) {
+                        return Uni.createFrom().item(conflict("Email already exists: " + request.email));
+                    }
+                    if (usernameChanged) {
+                        user.username = request.username;
+                    }
+                    if (emailChanged) {
+                        user.email = request.email;
+                    }
+                    boolean renamed = request.name != null && !request.name.equals(user.name);
+                    if (renamed) {
+                        user.name = request.name;
+                    }
+                    // Flush so the response carries the updatedAt set by the update
+                    return user.<User>persistAndFlush()
+                            // The user's todo lists include the name, so their version must change too
+                            .call(updated -> renamed
+                                    ? UserTodoCounts.adjust(id, 0, 0)
+                                    : Uni.createFrom().voidItem())
+                            .map(updated -> Response.ok(UserResponse.from(updated)).build());
+                });
+            });
+        });
+    }
+
+    /**
+     * Delete a user by ID.
+     * DELETE /api/v1/users/{id}
+     */
+    @DELETE
+    @Path("/{id}")
+    @WithTransaction
+    public Uni<Response> deleteUser(@PathParam("id") Long id) {
+        return User.deleteWithTodos(id).map(deleted -> deleted
+                ? Response.noContent().build()
+                : notFound("User not found with id: " + id));
+    }
+
+    /**
+     * Get user statistics.
+     * GET /api/v1/users/{id}/stats
+     */
+    @GET
+    @Path("/{id}/stats")
+    @WithSession
+    public Uni<Response> getUserStats(@PathParam("id") Long id) {
+        return User.<User>findById(id).chain(user -> {
+            if (user == null) {
+                return Uni.createFrom().item(notFound("User not found with id: " + id));
+            }
+            // Counter rows missing for a user (until the blocking reconciler creates them) are counted live
+            Uni<long[]> counts = UserTodoCounts.<UserTodoCounts>findById(id).chain(row -> row != null
+                    ? Uni.createFrom().item(new long[] {row.totalTodos, row.completedTodos})
+                    : Todo.countByUserId(id).chain(total -> Todo.countByUserIdAndCompleted(id, true)
+                            .map(completed -> new long[] {total, completed})));
+            return counts.map(totals -> {
+                UserStats stats = new UserStats();
+                stats.userId = id;
+                stats.username = user.username;
+                stats.totalTodos = totals[0];
+                stats.completedTodos = totals[1];
+                stats.pendingTodos = totals[0] - totals[1];
+                return Response.ok(stats).build();
+            });
+        });
+    }
+
+    private static Response notFound(String message) {
+        return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse(message))
+                .build();
+    }
+
+    private static Response conflict(String message) {
+        return Response.status(Response.Status.CONFLICT)
+                .entity(new ErrorResponse(message))
+                .build();
+    }
+
+    // Inner classes for responses
+    public static class UserStats {
+        public Long userId;
+        public String username;
+        public long totalTodos;
+        public long completedTodos;
+        public long pendingTodos;
+    }
+}
@@ -0,0 +1,328 @@
+package org.swiftbeard.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.*;
+import org.swiftbeard.dto.TodoCreateRequest;
+import org.swiftbeard.dto.TodoUpdateRequest;
+import org.swiftbeard.dto.UserCreateRequest;
+
+import java.time.LocalDateTime;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Tests for the reactive TodoResource endpoints, mirroring the blocking application's tests.
+ * The reactive application loads no seed data, so the tests create their own user and todos.
+ */
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TodoResourceTest {
+
+    private static Long userId;
+
+    private static Long createdTodoId;
+
+    @Test
+    @Order(1)
+    void testCreateTodo() {
+        UserCreateRequest user = new UserCreateRequest();
+        user.username = "rx_todo_owner";
+        user.email = "rx.todo.owner@example.com";
+        user.name = "Todo Owner";
+        userId = given()
+            .contentType(ContentType.JSON)
+            .body(user)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(201)
+            .extract()
+            .jsonPath()
+            .getLong("id");
+
+        for (int i = 0; i < 3; i++) {
+            TodoCreateRequest seed = new TodoCreateRequest();
+            seed.title = "Seed " + i;
+            seed.userId = userId;
+            seed.completed = i == 0;
+            given().contentType(ContentType.JSON).body(seed).when().post("/api/v1/todos").then().statusCode(201);
+        }
+
+        TodoCreateRequest request = new TodoCreateRequest();
+        request.title = "Test Todo";
+        request.description = "This is a test todo";
+        request.completed = false;
+        request.userId = userId;
+        request.dueDate = LocalDateTime.now().plusDays(7);
+
+        createdTodoId = given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/todos")
+            .then()
+            .statusCode(201)
+            .body("title", equalTo("Test Todo"))
+            .body("description", equalTo("This is a test todo"))
+            .body("completed", equalTo(false))
+            .body("userId", equalTo(userId.intValue()))
+            .body("id", notNullValue())
+            .body("createdAt", notNullValue())
+            .extract()
+            .jsonPath()
+            .getLong("id");
+    }
+
+    @Test
+    @Order(2)
+    void testCreateTodoWithInvalidUserId() {
+        TodoCreateRequest request = new TodoCreateRequest();
+        request.title = "Test Todo";
+        request.userId = 999999L; // Non-existent user
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/todos")
+            .then()
+            .statusCode(400)
+            .body("error", containsString("not found"));
+    }
+
+    @Test
+    @Order(3)
+    void testCreateTodoWithInvalidData() {
+        TodoCreateRequest request = new TodoCreateRequest();
+        request.title = ""; // Empty title
+        request.userId = userId;
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/todos")
+            .then()
+            .statusCode(400);
+    }
+
+    @Test
+    @Order(4)
+    void testGetAllTodosFiltered() {
+        given()
+            .queryParam("userId", userId)
+            .queryParam("completed", true)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(1))
+            .body("[0].userId", equalTo(userId.intValue()))
+            .body("[0].completed", equalTo(true))
+            .header("X-Total-Count", "1");
+
+        given()
+            .queryParam("page", 0)
+            .queryParam("size", 2)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(2))
+            .header("X-Page", "0")
+            .header("X-Page-Size", "2");
+    }
+
+    @Test
+    @Order(5)
+    void testGetTodosByUserId() {
+        given()
+            .queryParam("completed", false)
+            .when()
+            .get("/api/v1/todos/user/" + userId)
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(greaterThan(0)))
+            .body("[0].userId", equalTo(userId.intValue()))
+            .body("[0].completed", equalTo(false));
+    }
+
+    @Test
+    @Order(6)
+    void testGetTodosByUserIdNotFound() {
+        given()
+            .when()
+            .get("/api/v1/todos/user/999999")
+            .then()
+            .statusCode(404)
+            .body("error", containsString("not found"));
+    }
+
+    @Test
+    @Order(7)
+    void testGetTodoById() {
+        given()
+            .when()
+            .get("/api/v1/todos/" + createdTodoId)
+            .then()
+            .statusCode(200)
+            .body("id", equalTo(createdTodoId.intValue()))
+            .body("title", equalTo("Test Todo"));
+
+        given()
+            .when()
+            .get("/api/v1/todos/999999")
+            .then()
+            .statusCode(404)
+            .body("error", containsString("not found"));
+    }
+
+    @Test
+    @Order(8)
+    void testUpdateTodoReturnsStoredUpdatedAt() {
+        TodoUpdateRequest request = new TodoUpdateRequest();
+        request.title = "Updated Test Todo";
+        request.description = "Updated description";
+
+        String updatedAt = given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .put("/api/v1/todos/" + createdTodoId)
+            .then()
+            .statusCode(200)
+            .body("title", equalTo("Updated Test Todo"))
+            .body("description", equalTo("Updated description"))
+            .extract()
+            .path("updatedAt");
+
+        String createdAt = given()
+            .when()
+            .get("/api/v1/todos/" + createdTodoId)
+            .then()
+            .statusCode(200)
+            .body("updatedAt", equalTo(updatedAt))
+            .extract()
+            .path("createdAt");
+        Assertions.assertNotEquals(createdAt, updatedAt);
+    }
+
+    @Test
+    @Order(9)
+    void testUpdateTodoNotFound() {
+        TodoUpdateRequest request = new TodoUpdateRequest();
+        request.title = "Updated Title";
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .put("/api/v1/todos/999999")
+            .then()
+            .statusCode(404)
+            .body("error", containsString("not found"));
+    }
+
+    @Test
+    @Order(10)
+    void testToggleTodoCompletion() {
+        String updatedAt = given()
+            .when()
+            .patch("/api/v1/todos/" + createdTodoId + "/toggle")
+            .then()
+            .statusCode(200)
+            .body("completed", equalTo(true))
+            .extract()
+            .path("updatedAt");
+
+        given()
+            .when()
+            .get("/api/v1/todos/" + createdTodoId)
+            .then()
+            .statusCode(200)
+            .body("completed", equalTo(true))
+            .body("updatedAt", equalTo(updatedAt));
+
+        given()
+            .when()
+            .patch("/api/v1/todos/999999/toggle")
+            .then()
+            .statusCode(404)
+            .body("error", containsString("not found"));
+    }
+
+    @Test
+    @Order(11)
+    void testDeleteCompletedTodosForUser() {
+        // The seeded completed todo and the toggled one
+        given()
+            .when()
+            .delete("/api/v1/todos/user/" + userId + "/completed")
+            .then()
+            .statusCode(200)
+            .body("deletedCount", equalTo(2))
+            .body("message", equalTo("Deleted 2 completed todos"));
+
+        given()
+            .when()
+            .get("/api/v1/todos/" + createdTodoId)
+            .then()
+            .statusCode(404);
+    }
+
+    @Test
+    @Order(12)
+    void testDeleteCompletedTodosForUserNotFound() {
+        given()
+            .when()
+            .delete("/api/v1/todos/user/999999/completed")
+            .then()
+            .statusCode(404)
+            .body("error", containsString("not found"));
+    }
+
+    @Test
+    @Order(13)
+    void testDeleteTodo() {
+        long todoId = given()
+            .queryParam("userId", userId)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath()
+            .getLong("[0].id");
+
+        given()
+            .when()
+            .delete("/api/v1/todos/" + todoId)
+            .then()
+            .statusCode(204);
+
+        given()
+            .when()
+            .get("/api/v1/todos/" + todoId)
+            .then()
+            .statusCode(404);
+
+        given()
+            .when()
+            .delete("/api/v1/todos/" + todoId)
+            .then()
+            .statusCode(404)
+            .body("error", containsString("not found"));
+
+        given()
+            .when()
+            .get("/api/v1/users/" + userId + "/stats")
+            .then()
+            .statusCode(200)
+            .body("totalTodos", equalTo(1))
+            .body("completedTodos", equalTo(0));
+    }
+}
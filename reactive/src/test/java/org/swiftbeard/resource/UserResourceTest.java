@@ -0,0 +1,333 @@
+package org.swiftbeard.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.*;
+import org.swiftbeard.dto.TodoCreateRequest;
+import org.swiftbeard.dto.UserCreateRequest;
+import org.swiftbeard.dto.UserUpdateRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Tests for the reactive UserResource endpoints, mirroring the blocking application's tests.
+ * The reactive application loads no seed data, so the tests create their own users.
+ */
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class UserResourceTest {
+
+    private static Long createdUserId;
+
+    @Test
+    @Order(1)
+    void testCreateUser() {
+        createUser("rx_john_doe", "rx.john.doe@example.com", "John Doe");
+        createUser("rx_jane_smith", "rx.jane.smith@example.com", "Jane Smith");
+        createdUserId = createUser("rx_testuser", "rx.testuser@example.com", "Test User");
+
+        given()
+            .when()
+            .get("/api/v1/users/" + createdUserId)
+            .then()
+            .statusCode(200)
+            .body("username", equalTo("rx_testuser"))
+            .body("createdAt", notNullValue());
+    }
+
+    @Test
+    @Order(2)
+    void testGetAllUsersWithPagination() {
+        given()
+            .queryParam("page", 0)
+            .queryParam("size", 2)
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(2))
+            .header("X-Total-Count", notNullValue())
+            .header("X-Page", "0")
+            .header("X-Page-Size", "2");
+    }
+
+    @Test
+    @Order(3)
+    void testGetUserByIdNotFound() {
+        given()
+            .when()
+            .get("/api/v1/users/999999")
+            .then()
+            .statusCode(404)
+            .body("error", containsString("not found"));
+    }
+
+    @Test
+    @Order(4)
+    void testGetUserByUsername() {
+        given()
+            .when()
+            .get("/api/v1/users/username/rx_john_doe")
+            .then()
+            .statusCode(200)
+            .body("username", equalTo("rx_john_doe"));
+
+        given()
+            .when()
+            .get("/api/v1/users/username/nonexistent")
+            .then()
+            .statusCode(404)
+            .body("error", containsString("not found"));
+    }
+
+    @Test
+    @Order(5)
+    void testCreateUserWithDuplicateUsernameOrEmail() {
+        UserCreateRequest request = new UserCreateRequest();
+        request.username = "rx_john_doe";
+        request.email = "rx.other@example.com";
+        request.name = "New User";
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(409)
+            .body("error", equalTo("Username already exists: rx_john_doe"));
+
+        request.username = "rx_other";
+        request.email = "rx.john.doe@example.com";
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(409)
+            .body("error", equalTo("Email already exists: rx.john.doe@example.com"));
+    }
+
+    @Test
+    @Order(6)
+    void testCreateUserWithInvalidData() {
+        UserCreateRequest request = new UserCreateRequest();
+        request.username = "ab"; // Too short
+        request.email = "invalid-email"; // Invalid format
+        request.name = ""; // Empty
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(400);
+    }
+
+    @Test
+    @Order(7)
+    void testUpdateUserReturnsStoredUpdatedAt() {
+        UserUpdateRequest request = new UserUpdateRequest();
+        request.name = "Updated Test User";
+
+        String updatedAt = given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .put("/api/v1/users/" + createdUserId)
+            .then()
+            .statusCode(200)
+            .body("name", equalTo("Updated Test User"))
+            .extract()
+            .path("updatedAt");
+
+        String createdAt = given()
+            .when()
+            .get("/api/v1/users/" + createdUserId)
+            .then()
+            .statusCode(200)
+            .body("updatedAt", equalTo(updatedAt))
+            .extract()
+            .path("createdAt");
+        Assertions.assertNotEquals(createdAt, updatedAt);
+    }
+
+    @Test
+    @Order(8)
+    void testUpdateUserWithDuplicateUsername() {
+        UserUpdateRequest request = new UserUpdateRequest();
+        request.username = "rx_john_doe";
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .put("/api/v1/users/" + createdUserId)
+            .then()
+            .statusCode(409)
+            .body("error", containsString("already exists"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .put("/api/v1/users/999999")
+            .then()
+            .statusCode(404)
+            .body("error", containsString("not found"));
+    }
+
+    @Test
+    @Order(9)
+    void testSearchUsersMatchesNameUsernameAndEmail() {
+        // Exact username match ranks first, ahead of other users containing "rx_"
+        given()
+            .queryParam("search", "RX_JANE_SMITH")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .body("[0].username", equalTo("rx_jane_smith"));
+
+        given()
+            .queryParam("search", "smith@example")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .body("username", hasItem("rx_jane_smith"));
+
+        given()
+            .queryParam("search", "rx_")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(greaterThan(2)));
+
+        given()
+            .queryParam("search", "%")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .header("X-Total-Count", "0")
+            .body("$", hasSize(0));
+    }
+
+    @Test
+    @Order(10)
+    void testUserStatsTrackTodoWrites() {
+        long userId = createUser("rx_counted", "rx.counted@example.com", "Counted");
+        assertStats(userId, 0, 0, 0);
+
+        List<Long> todoIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            TodoCreateRequest todo = new TodoCreateRequest();
+            todo.title = "Counted " + i;
+            todo.userId = userId;
+            todo.completed = i == 0;
+            todoIds.add(given()
+                .contentType(ContentType.JSON)
+                .body(todo)
+                .when()
+                .post("/api/v1/todos")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id"));
+        }
+
+        // 4 todos, 1 completed -> toggle one (2), complete one by update (3), delete a pending one
+        given().when().patch("/api/v1/todos/" + todoIds.get(1) + "/toggle").then().statusCode(200);
+        given()
+            .contentType(ContentType.JSON)
+            .body(java.util.Map.of("completed", true))
+            .when()
+            .put("/api/v1/todos/" + todoIds.get(2))
+            .then()
+            .statusCode(200);
+        given().when().delete("/api/v1/todos/" + todoIds.get(3)).then().statusCode(204);
+
+        assertStats(userId, 3, 3, 0);
+
+        given().when().delete("/api/v1/todos/user/" + userId + "/completed").then().statusCode(200);
+        assertStats(userId, 0, 0, 0);
+
+        given()
+            .when()
+            .get("/api/v1/users/999999/stats")
+            .then()
+            .statusCode(404)
+            .body("error", containsString("not found"));
+    }
+
+    @Test
+    @Order(11)
+    void testDeleteUserWithTodos() {
+        TodoCreateRequest todo = new TodoCreateRequest();
+        todo.title = "Owned";
+        todo.userId = createdUserId;
+        given().contentType(ContentType.JSON).body(todo).when().post("/api/v1/todos").then().statusCode(201);
+
+        given()
+            .when()
+            .delete("/api/v1/users/" + createdUserId)
+            .then()
+            .statusCode(204);
+
+        given()
+            .when()
+            .get("/api/v1/users/" + createdUserId)
+            .then()
+            .statusCode(404);
+
+        given()
+            .when()
+            .delete("/api/v1/users/" + createdUserId)
+            .then()
+            .statusCode(404)
+            .body("error", containsString("not found"));
+    }
+
+    private static long createUser(String username, String email, String name) {
+        UserCreateRequest request = new UserCreateRequest();
+        request.username = username;
+        request.email = email;
+        request.name = name;
+
+        return given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(201)
+            .body("username", equalTo(username))
+            .body("id", notNullValue())
+            .extract()
+            .jsonPath()
+            .getLong("id");
+    }
+
+    private static void assertStats(long userId, int total, int completed, int pending) {
+        given()
+            .when()
+            .get("/api/v1/users/" + userId + "/stats")
+            .then()
+            .statusCode(200)
+            .body("totalTodos", equalTo(total))
+            .body("completedTodos", equalTo(completed))
+            .body("pendingTodos", equalTo(pending));
+    }
+}
@@ -0,0 +1,213 @@
+package org.swiftbeard.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of serialized single-resource JSON responses, keyed by response type and ID.
+ * Hits skip the entity load, the DTO and Jackson; the UTF-8 bytes are kept in direct
+ * (off-heap) buffers and written to the response from there. The total size is
+ * bounded by {@code responses.json-cache.maximum-size}; evicted buffers are freed
+ * once the garbage collector reclaims them.
+ *
+ * Write paths invalidate entries both immediately and after their transaction
+ * completes. A response loaded before an invalidation is never stored: each fill
+ * carries the invalidation count read before the load and is dropped if it moved.
+ */
+@ApplicationScoped
+public class JsonResponseCache {
+
+    @ConfigProperty(name = "responses.json-cache.maximum-size", defaultValue = "64M")
+    MemorySize maximumSize;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    TransactionSynchronizationRegistry transactions;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Keys of the cached entries of each user; may briefly hold keys of removed entries
+    private final Map<Long, Set<Key>> keysByOwner = new ConcurrentHashMap<>();
+
+    Cache<Key, Entry> entries;
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.asLongValue())
+                .weigher((Key key, Entry entry) -> entry.json.capacity())
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> unindex(key, entry))
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * A cached response body with its entity tag.
+     *
+     * @param ownerId the user the representation belongs to, for invalidation by user
+     */
+    public record Entry(ByteBuffer json, EntityTag tag, Long ownerId) {
+
+        /**
+         * The body, written from the cached off-heap buffer.
+         */
+        public StreamingOutput body() {
+            return output -> {
+                ByteBuffer body = json.duplicate();
+                WritableByteChannel channel = Channels.newChannel(output);
+                while (body.hasRemaining()) {
+                    channel.write(body);
+                }
+            };
+        }
+    }
+
+    private record Key(Class<?> type, Long id) {
+    }
+
+    public Entry get(Class<?> type, Long id) {
+        return entries.getIfPresent(new Key(type, id));
+    }
+
+    /**
+     * Invalidation count to pass to {@link #put}; read it before loading the entity.
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Serialize a response and cache it unless an invalidation happened since {@code stamp}.
+     *
+     * @return the serialized JSON, to be sent for this request
+     */
+    public byte[] put(Class<?> type, Long id, Long ownerId, Object response, EntityTag tag, long stamp) {
+        byte[] json;
+        try {
+            json = objectMapper.writerFor(type).writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (invalidations.get() != stamp) {
+            return json;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(json.length).put(json).flip().asReadOnlyBuffer();
+        Key key = new Key(type, id);
+        Entry entry = new Entry(buffer, tag, ownerId);
+        entries.put(key, entry);
+        // Indexed after the put, so removing the key from the index never races ahead of it
+        keysByOwner.compute(ownerId, (owner, keys) -> {
+            Set<Key> indexed = keys != null ? keys : new HashSet<>();
+            indexed.add(key);
+            return indexed;
+        });
+        // An invalidation that raced with the put may have run before the entry was visible
+        if (invalidations.get() != stamp) {
+            entries.asMap().remove(key, entry);
+        }
+        return json;
+    }
+
+    public void invalidate(Class<?> type, Long id) {
+        onWrite(() -> entries.invalidate(new Key(type, id)));
+    }
+
+    public void invalidate(Class<?> type, Collection<Long> ids) {
+        onWrite(() -> ids.forEach(id -> entries.invalidate(new Key(type, id))));
+    }
+
+    /**
+     * Drop every entry belonging to a user, when the affected IDs are not known
+     * (e.g. bulk deletes or a rename visible in all of the user's todos).
+     */
+    public void invalidateOwnedBy(Long userId) {
+        onWrite(() -> {
+            Set<Key> keys = keysByOwner.remove(userId);
+            if (keys != null) {
+                entries.invalidateAll(keys);
+            }
+        });
+    }
+
+    public CacheStats stats() {
+        return entries.stats();
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    public long weightBytes() {
+        return entries.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    public long maximumWeightBytes() {
+        return maximumSize.asLongValue();
+    }
+
+    /**
+     * Drop a removed entry's key from its owner's index, unless a newer entry took its place.
+     */
+    private void unindex(Key key, Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        keysByOwner.computeIfPresent(entry.ownerId, (owner, keys) -> {
+            if (!entries.asMap().containsKey(key)) {
+                keys.remove(key);
+            }
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Run an invalidation now and again once the current transaction, if any, completes,
+     * so readers that loaded the old state before the commit cannot re-cache it.
+     */
+    private void onWrite(Runnable invalidation) {
+        invalidations.incrementAndGet();
+        invalidation.run();
+        if (transactions.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactions.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    invalidations.incrementAndGet();
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.swiftbeard.cache;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.swiftbeard.entity.User;
+
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters of existing usernames and emails.
+ * Built at startup and updated on writes, they let sign-ups skip the uniqueness
+ * pre-check query when a value is definitely free; the unique constraints on
+ * the users table remain the final arbiter.
+ */
+@ApplicationScoped
+public class UserKeyFilters {
+
+    @ConfigProperty(name = "users.key-filter.expected-insertions", defaultValue = "1000000")
+    long expectedInsertions;
+
+    @ConfigProperty(name = "users.key-filter.false-positive-rate", defaultValue = "0.01")
+    double falsePositiveRate;
+
+    BloomFilter usernames;
+    BloomFilter emails;
+
+    @PostConstruct
+    void init() {
+        usernames = new BloomFilter(expectedInsertions, falsePositiveRate);
+        emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            try (Stream<String[]> keys = User.streamNaturalKeys()) {
+                keys.forEach(pair -> add(pair[0], pair[1]));
+            }
+        });
+    }
+
+    /**
+     * Record the natural keys of a created or updated user.
+     */
+    public void add(String username, String email) {
+        usernames.add(username);
+        emails.add(email);
+    }
+
+    public BloomFilter usernames() {
+        return usernames;
+    }
+
+    public BloomFilter emails() {
+        return emails;
+    }
+}
@@ -0,0 +1,112 @@
+package org.swiftbeard.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.swiftbeard.entity.User;
+
+/**
+ * Application-level cache of user natural keys (username and email) to user IDs.
+ * The second-level cache only serves lookups by ID; this cache turns a username or
+ * email lookup into an ID, which the second-level cache then resolves without a query.
+ * Caffeine's W-TinyLFU policy bounds the size and keeps frequently used keys.
+ */
+@ApplicationScoped
+public class UserNaturalKeyCache {
+
+    @ConfigProperty(name = "users.natural-key-cache.maximum-size", defaultValue = "10000")
+    long maximumSize;
+
+    Cache<String, Long> usernameToId;
+    Cache<String, Long> emailToId;
+
+    @PostConstruct
+    void init() {
+        usernameToId = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+        emailToId = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    /**
+     * Find a user by username, resolving the ID from memory when possible.
+     */
+    public User findByUsername(String username) {
+        Long id = usernameToId.getIfPresent(username);
+        if (id != null) {
+            User user = User.findById(id);
+            if (user != null && username.equals(user.username)) {
+                return user;
+            }
+            usernameToId.invalidate(username);
+        }
+        User user = User.findByUsername(username);
+        put(user);
+        return user;
+    }
+
+    /**
+     * Find a user by email, resolving the ID from memory when possible.
+     */
+    public User findByEmail(String email) {
+        Long id = emailToId.getIfPresent(email);
+        if (id != null) {
+            User user = User.findById(id);
+            if (user != null && email.equals(user.email)) {
+                return user;
+            }
+            emailToId.invalidate(email);
+        }
+        User user = User.findByEmail(email);
+        put(user);
+        return user;
+    }
+
+    /**
+     * Record the current natural keys of a persisted user.
+     */
+    public void put(User user) {
+        if (user == null || user.id == null) {
+            return;
+        }
+        usernameToId.put(user.username, user.id);
+        emailToId.put(user.email, user.id);
+    }
+
+    /**
+     * Drop the given natural keys, e.g. the old values after a rename.
+     */
+    public void invalidate(String username, String email) {
+        if (username != null) {
+            usernameToId.invalidate(username);
+        }
+        if (email != null) {
+            emailToId.invalidate(email);
+        }
+    }
+
+    /**
+     * Drop every key pointing at a user, when only the ID is known (e.g. bulk delete).
+     */
+    public void invalidate(Long id) {
+        usernameToId.asMap().values().removeIf(id::equals);
+        emailToId.asMap().values().removeIf(id::equals);
+    }
+
+    public CacheStats usernameStats() {
+        return usernameToId.stats();
+    }
+
+    public long usernameSize() {
+        return usernameToId.estimatedSize();
+    }
+
+    public CacheStats emailStats() {
+        return emailToId.stats();
+    }
+
+    public long emailSize() {
+        return emailToId.estimatedSize();
+    }
+}
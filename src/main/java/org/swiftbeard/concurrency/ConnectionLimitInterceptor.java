@@ -0,0 +1,31 @@
+package org.swiftbeard.concurrency;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Applies {@link ConnectionLimiter} to {@link ConnectionLimited} beans.
+ * Runs before the {@code @Transactional} interceptor, so waiting callers do not
+ * hold a transaction or a connection.
+ */
+@ConnectionLimited
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class ConnectionLimitInterceptor {
+
+    @Inject
+    ConnectionLimiter limiter;
+
+    @AroundInvoke
+    Object limit(InvocationContext context) throws Exception {
+        limiter.acquire();
+        try {
+            return context.proceed();
+        } finally {
+            limiter.release();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.swiftbeard.concurrency;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bounds the number of concurrent invocations that can hold a JDBC connection.
+ * Callers beyond the limit wait outside any transaction, and are rejected with
+ * 503 if no slot frees up in time. See {@link ConnectionLimitInterceptor}.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConnectionLimited {
+}
@@ -0,0 +1,84 @@
+package org.swiftbeard.concurrency;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.swiftbeard.exception.ConnectionLimitExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control sized to the JDBC pool.
+ * With virtual threads, thousands of requests can be in flight at once; without a
+ * limit they would all queue inside the pool, each holding request state and
+ * timing out together. Waiting on a fair semaphore is cheap for a virtual thread
+ * and keeps admission first-come, first-served.
+ */
+@ApplicationScoped
+public class ConnectionLimiter {
+
+    @ConfigProperty(name = "database.concurrency-limit", defaultValue = "20")
+    int limit;
+
+    @ConfigProperty(name = "database.concurrency-limit.acquire-timeout", defaultValue = "5S")
+    Duration acquireTimeout;
+
+    private Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(limit, true);
+    }
+
+    /**
+     * Wait up to the configured timeout for a slot.
+     *
+     * @return false if no slot freed up in time; the caller must not proceed
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Wait up to the configured timeout for a slot.
+     *
+     * @throws ConnectionLimitExceededException if no slot freed up in time
+     */
+    public void acquire() throws InterruptedException {
+        if (!tryAcquire()) {
+            throw new ConnectionLimitExceededException(limit, acquireTimeout);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public Duration acquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public int inFlight() {
+        return limit - permits.availablePermits();
+    }
+
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+}
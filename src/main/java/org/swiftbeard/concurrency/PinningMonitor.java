@@ -0,0 +1,118 @@
+package org.swiftbeard.concurrency;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Records virtual threads pinned to their carrier thread, e.g. by a JDBC driver or
+ * connection pool blocking inside a {@code synchronized} block, using the JDK's
+ * {@code jdk.VirtualThreadPinned} JFR event. Events are grouped by the first
+ * non-JDK frame of the stack, and the full stack of each new site is logged once.
+ */
+@ApplicationScoped
+public class PinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 20;
+
+    @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "true")
+    boolean virtualThreadsEnabled;
+
+    @ConfigProperty(name = "virtual-threads.pinning-monitor.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "virtual-threads.pinning-monitor.threshold", defaultValue = "20ms")
+    Duration threshold;
+
+    private final Map<String, LongAdder> eventsBySite = new ConcurrentHashMap<>();
+    private final LongAdder pinnedNanos = new LongAdder();
+
+    private RecordingStream stream;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!virtualThreadsEnabled || !enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    void record(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String site = frames.stream()
+                .filter(frame -> !isJdkFrame(frame))
+                .findFirst()
+                .map(PinningMonitor::describe)
+                .orElse("unknown");
+
+        pinnedNanos.add(event.getDuration().toNanos());
+        LongAdder count = eventsBySite.computeIfAbsent(site, key -> {
+            Log.warnf("Virtual thread pinned for %d ms at %s%n%s", event.getDuration().toMillis(), key,
+                    frames.stream()
+                            .limit(LOGGED_FRAMES)
+                            .map(frame -> "\tat " + describe(frame))
+                            .collect(Collectors.joining("\n")));
+            return new LongAdder();
+        });
+        count.increment();
+    }
+
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    public Duration threshold() {
+        return threshold;
+    }
+
+    public long pinnedEventCount() {
+        return eventsBySite.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long pinnedMillis() {
+        return Duration.ofNanos(pinnedNanos.sum()).toMillis();
+    }
+
+    /**
+     * Pinned event counts per call site, most frequent first.
+     */
+    public Map<String, Long> pinnedEventsBySite() {
+        return eventsBySite.entrySet().stream()
+                .sorted(Map.Entry.<String, LongAdder>comparingByValue(
+                        (a, b) -> Long.compare(b.sum(), a.sum())))
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum(),
+                        (a, b) -> a, java.util.LinkedHashMap::new));
+    }
+
+    private static boolean isJdkFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,32 @@
+package org.swiftbeard.dto;
+
+import java.util.Locale;
+
+/**
+ * How list endpoints compute the X-Total-Count header.
+ */
+public enum CountMode {
+
+    /** COUNT(*) over the rows matching the active filter. */
+    EXACT,
+
+    /** Planner statistics for unfiltered lists; exact, index-backed count when filtered. */
+    ESTIMATED,
+
+    /** Skip counting and omit the header. */
+    NONE;
+
+    /**
+     * Parse a query parameter value, case-insensitively.
+     *
+     * @throws IllegalArgumentException if the value is not a known mode
+     */
+    public static CountMode parse(String value) {
+        try {
+            return CountMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid count mode: " + value + " (expected exact, estimated or none)");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.swiftbeard.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for updating many todos at once.
+ * The field changes are applied to every listed todo; all fields are optional.
+ */
+public class TodoBulkUpdateRequest {
+
+    @NotEmpty(message = "At least one todo ID is required")
+    @Size(max = 1000, message = "At most 1000 todo IDs can be updated at once")
+    public List<Long> ids;
+
+    @Size(min = 1, max = 200, message = "Title must be between 1 and 200 characters")
+    @Pattern(regexp = "(?s).*\\S.*", message = "Title must not be blank")
+    public String title;
+
+    @Size(max = 1000, message = "Description must not exceed 1000 characters")
+    public String description;
+
+    public Boolean completed;
+
+    public LocalDateTime dueDate;
+}
@@ -0,0 +1,16 @@
+package org.swiftbeard.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO listing the todos a bulk operation applies to.
+ */
+public class TodoIdsRequest {
+
+    @NotEmpty(message = "At least one todo ID is required")
+    @Size(max = 1000, message = "At most 1000 todo IDs can be updated at once")
+    public List<Long> ids;
+}
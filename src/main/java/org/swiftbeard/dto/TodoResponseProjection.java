@@ -0,0 +1,22 @@
+package org.swiftbeard.dto;
+
+import io.quarkus.hibernate.orm.panache.common.ProjectedConstructor;
+import io.quarkus.hibernate.orm.panache.common.ProjectedFieldName;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@link TodoResponse} built by list queries, so the user name is read through a
+ * join in the same statement instead of the lazy user association.
+ * Separate from the shared DTO because the reactive application has no ORM Panache projections.
+ */
+public class TodoResponseProjection extends TodoResponse {
+
+    @ProjectedConstructor
+    public TodoResponseProjection(Long id, String title, String description, Boolean completed,
+                                  @ProjectedFieldName("user.id") Long userId,
+                                  @ProjectedFieldName("user.name") String userName,
+                                  LocalDateTime dueDate, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        super(id, title, description, completed, userId, userName, dueDate, createdAt, updatedAt);
+    }
+}
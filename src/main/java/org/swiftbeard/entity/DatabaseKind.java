@@ -0,0 +1,30 @@
+package org.swiftbeard.entity;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+
+/**
+ * The configured kind of the default datasource, for the few native queries
+ * and startup steps that differ between PostgreSQL and H2.
+ */
+final class DatabaseKind {
+
+    private DatabaseKind() {
+    }
+
+    static boolean isPostgreSql() {
+        return switch (dbKind()) {
+            case "postgresql", "pgsql", "postgres" -> true;
+            default -> false;
+        };
+    }
+
+    static boolean isH2() {
+        return dbKind().equals("h2");
+    }
+
+    private static String dbKind() {
+        return ConfigProvider.getConfig()
+                .getOptionalValue("quarkus.datasource.db-kind", String.class)
+                .orElse("");
+    }
+}
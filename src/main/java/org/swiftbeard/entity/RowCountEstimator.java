@@ -0,0 +1,41 @@
+package org.swiftbeard.entity;
+
+import io.quarkus.hibernate.orm.panache.Panache;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate table row counts read from database statistics.
+ * Avoids a full-table COUNT(*) when an estimated total is good enough.
+ */
+final class RowCountEstimator {
+
+    private RowCountEstimator() {
+    }
+
+    /**
+     * Estimate the number of rows in a table from planner statistics
+     * (pg_class.reltuples on PostgreSQL, the table row estimate on H2).
+     * Falls back to the exact count when no statistics are available,
+     * e.g. on a table that has never been analyzed.
+     */
+    static long estimate(String table, LongSupplier exactCount) {
+        String sql;
+        if (DatabaseKind.isPostgreSql()) {
+            sql = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = to_regclass(?1)";
+        } else if (DatabaseKind.isH2()) {
+            sql = "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES"
+                    + " WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = UPPER(?1)";
+        } else {
+            return exactCount.getAsLong();
+        }
+
+        List<?> rows = Panache.getEntityManager()
+                .createNativeQuery(sql)
+                .setParameter(1, table)
+                .getResultList();
+        long estimate = !rows.isEmpty() && rows.get(0) instanceof Number number ? number.longValue() : -1;
+        return estimate >= 0 ? estimate : exactCount.getAsLong();
+    }
+}
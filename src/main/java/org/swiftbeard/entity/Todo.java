@@ -1,6 +1,9 @@
 package org.swiftbeard.entity;
 
-import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -11,14 +14,28 @@ import java.time.LocalDateTime;
 /**
  * Todo entity representing a task/todo item.
  * Each todo belongs to a user.
+ * Cacheable so reads by ID (getTodoById, update, toggle) skip the database on a hit.
  */
 @Entity
+@Cacheable
 @Table(name = "todos", indexes = {
-    @Index(name = "idx_todo_user_id", columnList = "user_id"),
-    @Index(name = "idx_todo_status", columnList = "completed"),
-    @Index(name = "idx_todo_created_at", columnList = "created_at")
+    @Index(name = "idx_todo_user_created_at_id", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_todo_user_completed_created_at_id", columnList = "user_id, completed, created_at, id"),
+    @Index(name = "idx_todo_completed_created_at_id", columnList = "completed, created_at, id"),
+    @Index(name = "idx_todo_created_at_id", columnList = "created_at, id")
 })
-public class Todo extends PanacheEntity {
+public class Todo extends PanacheEntityBase {
+
+    /**
+     * Number of IDs reserved per sequence call. Sized for bulk inserts so a
+     * batch of thousands of todos needs only a handful of sequence round trips.
+     */
+    public static final int ID_ALLOCATION_SIZE = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_SEQ", allocationSize = ID_ALLOCATION_SIZE)
+    public Long id;
 
     @NotBlank(message = "Title is required")
     @Size(max = 200, message = "Title must not exceed 200 characters")
@@ -49,15 +66,19 @@ public class Todo extends PanacheEntity {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        LocalDateTime now = Timestamps.now();
+        createdAt = now;
+        updatedAt = now;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = Timestamps.now();
     }
 
+    // Sort order backing keyset pagination; must match the trailing columns of the todo indexes
+    private static final Sort KEYSET_SORT = Sort.by("createdAt").and("id");
+
     // Custom finder methods for optimized queries
     public static java.util.List<Todo> findByUserId(Long userId) {
         return find("user.id", userId).list();
@@ -71,6 +92,196 @@ public class Todo extends PanacheEntity {
         return find("completed", completed).list();
     }
 
+    /**
+     * The timestamps a todo's representation depends on.
+     *
+     * @param todo  the todo's updatedAt
+     * @param owner its user's updatedAt, for the user name
+     */
+    public record Versions(LocalDateTime todo, LocalDateTime owner) {
+    }
+
+    /**
+     * Read only the todo's and its owner's updatedAt, without hydrating either entity.
+     *
+     * @return the timestamps, or empty if the todo does not exist
+     */
+    public static java.util.Optional<Versions> findVersions(Long id) {
+        return getEntityManager()
+                .createQuery("select new org.swiftbeard.entity.Todo$Versions(t.updatedAt, t.user.updatedAt)"
+                        + " from Todo t where t.id = :id", Versions.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Offset page ordered by the keyset sort key (createdAt, id).
+     * Null filters are ignored; each filter combination is backed by a
+     * composite index ending in (created_at, id).
+     * Returned as a query so callers can project it to a DTO before listing.
+     */
+    public static PanacheQuery<Todo> findPage(Long userId, Boolean completed, int page, int size) {
+        return findFiltered(userId, completed).page(page, size);
+    }
+
+    /**
+     * All todos matching the optional filters, in keyset order and without paging.
+     * Intended for {@code stream()}, which reads through a forward-only cursor.
+     */
+    public static PanacheQuery<Todo> findFiltered(Long userId, Boolean completed) {
+        Parameters params = new Parameters();
+        java.util.List<String> conditions = filterConditions(userId, completed, params);
+        return findSorted(conditions, params);
+    }
+
+    /**
+     * Keyset page: the first {@code size} matching todos strictly after the given sort key.
+     * Seeks on the filter's (..., created_at, id) index so the cost does not grow with depth.
+     * A null cursor starts from the beginning.
+     */
+    public static PanacheQuery<Todo> findPageAfter(Long userId, Boolean completed,
+                                                   LocalDateTime afterCreatedAt, Long afterId, int size) {
+        Parameters params = new Parameters();
+        java.util.List<String> conditions = filterConditions(userId, completed, params);
+        if (afterCreatedAt != null && afterId != null) {
+            conditions.add("(createdAt, id) > (:afterCreatedAt, :afterId)");
+            params.and("afterCreatedAt", afterCreatedAt).and("afterId", afterId);
+        }
+        return findSorted(conditions, params).range(0, size - 1);
+    }
+
+    /**
+     * Apply the non-null field changes to all listed todos with a single
+     * set-based UPDATE, bumping updatedAt since @PreUpdate does not run for bulk statements.
+     * A completion change first shifts the owners' todo counters with one more statement,
+     * and the owners' collection versions are bumped with another.
+     *
+     * @return the number of rows updated
+     */
+    public static int updateByIds(java.util.Collection<Long> ids, String title, String description,
+                                  Boolean completed, LocalDateTime dueDate) {
+        Parameters params = Parameters.with("ids", ids).and("updatedAt", Timestamps.now());
+        java.util.List<String> assignments = new java.util.ArrayList<>();
+        if (title != null) {
+            assignments.add("title = :title");
+            params.and("title", title);
+        }
+        if (description != null) {
+            assignments.add("description = :description");
+            params.and("description", description);
+        }
+        if (completed != null) {
+            UserTodoCounts.adjustForCompletion(ids, completed);
+            assignments.add("completed = :completed");
+            params.and("completed", completed);
+        }
+        if (dueDate != null) {
+            assignments.add("dueDate = :dueDate");
+            params.and("dueDate", dueDate);
+        }
+        assignments.add("updatedAt = :updatedAt");
+        UserTodoCounts.touchOwners(ids);
+        return update(String.join(", ", assignments) + " where id in :ids", params);
+    }
+
+    /**
+     * Delete all completed todos of a user with a single DELETE statement
+     * and adjust the user's todo counters.
+     *
+     * @return the number of rows deleted
+     */
+    public static long deleteCompletedByUserId(Long userId) {
+        long deleted = delete("user.id = ?1 and completed = true", userId);
+        if (deleted > 0) {
+            UserTodoCounts.adjust(userId, -deleted, -deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete at most {@code limit} completed todos of a user, oldest first. The chunk is
+     * read in (createdAt, id) order, a range scan of idx_todo_user_completed_created_at_id.
+     * Call repeatedly, one transaction per call, to work through a large set
+     * in bounded chunks. The user's todo counters are adjusted per chunk.
+     *
+     * @return the number of rows deleted
+     */
+    public static long deleteCompletedByUserId(Long userId, int limit) {
+        java.util.List<Long> ids = findCompletedIds(userId, limit);
+        return ids.isEmpty() ? 0 : deleteCompleted(userId, ids);
+    }
+
+    /**
+     * IDs of at most {@code limit} completed todos of a user, oldest first.
+     */
+    static java.util.List<Long> findCompletedIds(Long userId, int limit) {
+        return getEntityManager()
+                .createQuery("select t.id from Todo t where t.user.id = :userId and t.completed = true"
+                        + " order by t.createdAt, t.id", Long.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Delete those of the listed todos that are still completed and owned by the user.
+     * The predicate is re-checked by the DELETE itself, so a todo reopened since its ID
+     * was read is kept and not counted.
+     *
+     * @return the number of rows deleted
+     */
+    static long deleteCompleted(Long userId, java.util.Collection<Long> ids) {
+        long deleted = delete("id in ?1 and completed = true and user.id = ?2", ids, userId);
+        if (deleted > 0) {
+            UserTodoCounts.adjust(userId, -deleted, -deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * All listed todos, in keyset order.
+     */
+    public static PanacheQuery<Todo> findByIdIn(java.util.Collection<Long> ids) {
+        return find("id in ?1", KEYSET_SORT, ids);
+    }
+
+    /**
+     * Exact count of the todos matching the optional filters.
+     */
+    public static long countFiltered(Long userId, Boolean completed) {
+        Parameters params = new Parameters();
+        java.util.List<String> conditions = filterConditions(userId, completed, params);
+        return conditions.isEmpty() ? count() : count(String.join(" and ", conditions), params);
+    }
+
+    /**
+     * Approximate total number of todos from database statistics.
+     */
+    public static long estimateCount() {
+        return RowCountEstimator.estimate("todos", Todo::count);
+    }
+
+    private static java.util.List<String> filterConditions(Long userId, Boolean completed, Parameters params) {
+        java.util.List<String> conditions = new java.util.ArrayList<>();
+        if (userId != null) {
+            conditions.add("user.id = :userId");
+            params.and("userId", userId);
+        }
+        if (completed != null) {
+            conditions.add("completed = :completed");
+            params.and("completed", completed);
+        }
+        return conditions;
+    }
+
+    private static PanacheQuery<Todo> findSorted(java.util.List<String> conditions, Parameters params) {
+        if (conditions.isEmpty()) {
+            return findAll(KEYSET_SORT);
+        }
+        return find(String.join(" and ", conditions), KEYSET_SORT, params);
+    }
+
     public static long countByUserId(Long userId) {
         return count("user.id", userId);
     }
@@ -78,4 +289,9 @@ public class Todo extends PanacheEntity {
     public static long countByUserIdAndCompleted(Long userId, Boolean completed) {
         return count("user.id = ?1 and completed = ?2", userId, completed);
     }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "<" + id + ">";
+    }
 }
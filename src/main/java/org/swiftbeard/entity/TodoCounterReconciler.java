@@ -0,0 +1,67 @@
+package org.swiftbeard.entity;
+
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+
+/**
+ * Periodically recomputes {@link UserTodoCounts} from the todos table.
+ * Counters can drift when todos are written outside the resource layer
+ * (imports, manual SQL, tests); each chunk of users is recounted in its own
+ * short transaction so counter rows are never locked for long.
+ */
+@ApplicationScoped
+public class TodoCounterReconciler {
+
+    @ConfigProperty(name = "todos.counters.reconcile-chunk-size", defaultValue = "1000")
+    int chunkSize;
+
+    /**
+     * Create counter rows for users that predate them, so todo writes never have to insert one.
+     */
+    void createMissingOnStart(@Observes StartupEvent event) {
+        long created = QuarkusTransaction.requiringNew().call(UserTodoCounts::createMissing);
+        if (created > 0) {
+            Log.infof("Todo counters created for %d existing users", created);
+        }
+    }
+
+    @Scheduled(every = "${todos.counters.reconcile-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Fix drifted counters, create missing rows and drop rows of deleted users.
+     *
+     * @return the number of rows that were corrected, created or removed
+     */
+    public long reconcile() {
+        long corrected = 0;
+        Long lastUserId = 0L;
+        while (true) {
+            Long after = lastUserId;
+            List<Long> userIds = QuarkusTransaction.requiringNew()
+                    .call(() -> UserTodoCounts.findUserIdsAfter(after, chunkSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            corrected += QuarkusTransaction.requiringNew().call(() -> UserTodoCounts.reconcile(userIds));
+            lastUserId = userIds.get(userIds.size() - 1);
+        }
+
+        long created = QuarkusTransaction.requiringNew().call(UserTodoCounts::createMissing);
+        long removed = QuarkusTransaction.requiringNew().call(UserTodoCounts::deleteOrphans);
+
+        if (corrected + created + removed > 0) {
+            Log.infof("Todo counters reconciled: %d corrected, %d created, %d removed", corrected, created, removed);
+        }
+        return corrected + created + removed;
+    }
+}
@@ -0,0 +1,42 @@
+package org.swiftbeard.entity;
+
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+import java.util.List;
+
+/**
+ * Aligns the increment of an existing todos_SEQ with {@link Todo#ID_ALLOCATION_SIZE} on PostgreSQL.
+ * Hibernate creates the sequence with the right increment but never alters an existing one, and
+ * its pooled optimizer reserves ID_ALLOCATION_SIZE IDs per sequence call: on a sequence still
+ * incrementing by the former 50, instances would hand out overlapping IDs. Altering the increment
+ * keeps every ID issued so far below the next reserved block.
+ */
+@ApplicationScoped
+public class TodoIdSequence {
+
+    void onStart(@Observes StartupEvent event) {
+        if (!DatabaseKind.isPostgreSql()) {
+            return;
+        }
+        QuarkusTransaction.requiringNew().run(() -> {
+            // Unquoted in the mapping, so stored in lower case
+            List<?> increments = Todo.getEntityManager()
+                    .createNativeQuery("SELECT increment_by FROM pg_sequences WHERE sequencename = 'todos_seq'")
+                    .getResultList();
+            if (increments.isEmpty()) {
+                return;
+            }
+            long increment = ((Number) increments.get(0)).longValue();
+            if (increment != Todo.ID_ALLOCATION_SIZE) {
+                Todo.getEntityManager()
+                        .createNativeQuery("ALTER SEQUENCE todos_SEQ INCREMENT BY " + Todo.ID_ALLOCATION_SIZE)
+                        .executeUpdate();
+                Log.infof("todos_SEQ increment changed from %d to %d", increment, Todo.ID_ALLOCATION_SIZE);
+            }
+        });
+    }
+}
@@ -9,26 +9,41 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * User entity representing a user in the system.
  * Uses Panache Active Record pattern for simplified database operations.
+ * Cached in the second-level cache; see application.properties for region size and expiry.
  */
 @Entity
-@Table(name = "users", indexes = {
+@Cacheable
+@Table(name = "users", uniqueConstraints = {
+    @UniqueConstraint(name = User.USERNAME_UNIQUE_CONSTRAINT, columnNames = "username"),
+    @UniqueConstraint(name = User.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email")
+}, indexes = {
     @Index(name = "idx_user_email", columnList = "email"),
     @Index(name = "idx_user_username", columnList = "username")
 })
 public class User extends PanacheEntity {
 
+    /**
+     * Names of the unique constraints on username and email; PostgreSQL's default names
+     * for the former column constraints, so schema updates find them in place.
+     */
+    public static final String USERNAME_UNIQUE_CONSTRAINT = "users_username_key";
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "users_email_key";
+
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
-    @Column(unique = true, nullable = false, length = 50)
+    @Column(nullable = false, length = 50)
     public String username;
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email must be valid")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     public String email;
 
     @NotBlank(message = "Name is required")
@@ -47,13 +62,14 @@ public class User extends PanacheEntity {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        LocalDateTime now = Timestamps.now();
+        createdAt = now;
+        updatedAt = now;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = Timestamps.now();
     }
 
     // Custom finder methods for optimized queries
@@ -65,7 +81,63 @@ public class User extends PanacheEntity {
         return find("email", email).firstResult();
     }
 
+    /**
+     * Stream every (username, email) pair without hydrating entities.
+     * Must be consumed inside a transaction.
+     */
+    public static Stream<String[]> streamNaturalKeys() {
+        return getEntityManager()
+                .createQuery("SELECT u.username, u.email FROM User u", Object[].class)
+                .getResultStream()
+                .map(row -> new String[] {(String) row[0], (String) row[1]});
+    }
+
+    /**
+     * Read only a user's updatedAt without hydrating the entity,
+     * for validating a representation the client already holds.
+     *
+     * @return the timestamp, or empty if the user does not exist or has no updatedAt
+     */
+    public static Optional<LocalDateTime> findVersion(Long id) {
+        return getEntityManager()
+                .createQuery("SELECT u.updatedAt FROM User u WHERE u.id = :id", LocalDateTime.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
     public static List<User> findByNameContaining(String name) {
         return find("LOWER(name) LIKE LOWER(?1)", "%" + name + "%").list();
     }
+
+    /**
+     * Delete a user, their todo counters and all of their todos with bulk
+     * statements, without loading the user or initializing its todo collection.
+     *
+     * @return true if the user existed
+     */
+    public static boolean deleteWithTodos(Long id) {
+        UserTodoCounts.delete("userId", id);
+        Todo.delete("user.id", id);
+        return delete("id", id) > 0;
+    }
+
+    /**
+     * Search name, username and email for a substring, best matches first.
+     */
+    public static List<User> search(String term, int page, int size) {
+        return UserSearch.search(term, page, size);
+    }
+
+    public static long countSearch(String term) {
+        return UserSearch.count(term);
+    }
+
+    /**
+     * Approximate total number of users from database statistics.
+     */
+    public static long estimateCount() {
+        return RowCountEstimator.estimate("users", User::count);
+    }
 }
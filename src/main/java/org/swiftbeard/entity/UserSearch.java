@@ -0,0 +1,85 @@
+package org.swiftbeard.entity;
+
+import io.quarkus.hibernate.orm.panache.Panache;
+import jakarta.persistence.Query;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ranked, paginated substring search over user name, username and email.
+ * On PostgreSQL with pg_trgm the {@code LOWER(column) LIKE '%term%'} predicates are
+ * served by the GIN indexes created by {@link UserSearchIndexes} and results are ranked
+ * by trigram similarity. Without the extension (and on other databases, H2 in tests)
+ * the same predicates run and exact matches rank first, then prefix matches, then
+ * other substring matches.
+ */
+final class UserSearch {
+
+    private static final String MATCHES =
+            " WHERE LOWER(u.name) LIKE :pattern ESCAPE '\\'"
+                    + " OR LOWER(u.username) LIKE :pattern ESCAPE '\\'"
+                    + " OR LOWER(u.email) LIKE :pattern ESCAPE '\\'";
+
+    private static final String SIMILARITY_RANK =
+            "GREATEST(similarity(LOWER(u.name), :term), similarity(LOWER(u.username), :term),"
+                    + " similarity(LOWER(u.email), :term))";
+
+    private static final String MATCH_TYPE_RANK =
+            "CASE WHEN LOWER(u.username) = :term OR LOWER(u.email) = :term OR LOWER(u.name) = :term THEN 3"
+                    + " WHEN LOWER(u.username) LIKE :prefix ESCAPE '\\' OR LOWER(u.email) LIKE :prefix ESCAPE '\\'"
+                    + " OR LOWER(u.name) LIKE :prefix ESCAPE '\\' THEN 2"
+                    + " ELSE 1 END";
+
+    // Set at startup by UserSearchIndexes once pg_trgm is known to be installed
+    private static volatile boolean similarityRanking;
+
+    private UserSearch() {
+    }
+
+    static void useSimilarityRanking(boolean enabled) {
+        similarityRanking = enabled;
+    }
+
+    /**
+     * Find one page of users matching the term, best matches first.
+     */
+    @SuppressWarnings("unchecked")
+    static List<User> search(String term, int page, int size) {
+        String normalized = normalize(term);
+        boolean similarity = similarityRanking;
+        String rank = similarity ? SIMILARITY_RANK : MATCH_TYPE_RANK;
+
+        Query query = Panache.getEntityManager()
+                .createNativeQuery("SELECT u.* FROM users u" + MATCHES
+                        + " ORDER BY " + rank + " DESC, u.id", User.class)
+                .setParameter("pattern", "%" + escapeLike(normalized) + "%")
+                .setParameter("term", normalized)
+                .setFirstResult(page * size)
+                .setMaxResults(size);
+        if (!similarity) {
+            query.setParameter("prefix", escapeLike(normalized) + "%");
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Count all users matching the term.
+     */
+    static long count(String term) {
+        Object result = Panache.getEntityManager()
+                .createNativeQuery("SELECT COUNT(*) FROM users u" + MATCHES)
+                .setParameter("pattern", "%" + escapeLike(normalize(term)) + "%")
+                .getSingleResult();
+        return ((Number) result).longValue();
+    }
+
+    private static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Search terms are literal: '%' and '_' typed by the user must not act as wildcards
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
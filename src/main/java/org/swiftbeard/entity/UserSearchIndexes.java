@@ -0,0 +1,61 @@
+package org.swiftbeard.entity;
+
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+
+/**
+ * Creates the pg_trgm GIN indexes behind {@link UserSearch} on PostgreSQL.
+ * JPA index annotations cannot express operator classes, so the indexes are
+ * created idempotently at startup, after Hibernate has generated the schema.
+ * Search ranks by trigram similarity only if the extension is installed.
+ */
+@ApplicationScoped
+public class UserSearchIndexes {
+
+    private static final List<String> INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_user_name_trgm ON users USING gin (LOWER(name) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_user_username_trgm ON users USING gin (LOWER(username) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_user_email_trgm ON users USING gin (LOWER(email) gin_trgm_ops)");
+
+    void onStart(@Observes StartupEvent event) {
+        if (!DatabaseKind.isPostgreSql()) {
+            return;
+        }
+        // In its own transaction: a failure (extension not available, or no privilege)
+        // aborts the transaction, and the check below must still run
+        try {
+            QuarkusTransaction.requiringNew().run(() -> User.getEntityManager()
+                    .createNativeQuery("CREATE EXTENSION IF NOT EXISTS pg_trgm")
+                    .executeUpdate());
+        } catch (RuntimeException e) {
+            Log.debugf(e, "Could not create the pg_trgm extension");
+        }
+
+        boolean installed = QuarkusTransaction.requiringNew().call(() -> ((Number) User.getEntityManager()
+                .createNativeQuery("SELECT COUNT(*) FROM pg_extension WHERE extname = 'pg_trgm'")
+                .getSingleResult()).longValue() > 0);
+        UserSearch.useSimilarityRanking(installed);
+        if (!installed) {
+            // Search still works without the extension, ranking by match type over sequential scans
+            Log.warn("pg_trgm is not installed; user search ranks by match type without trigram indexes. "
+                    + "Install the extension to enable them");
+            return;
+        }
+
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                EntityManager entityManager = User.getEntityManager();
+                INDEXES.forEach(sql -> entityManager.createNativeQuery(sql).executeUpdate());
+            });
+        } catch (RuntimeException e) {
+            // Search still works without the indexes, it just falls back to sequential scans
+            Log.warnf(e, "Could not create trigram indexes for user search; create them manually");
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package org.swiftbeard.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.panache.common.Parameters;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialized per-user todo counters backing the user stats endpoint.
+ * Every todo write path adjusts the owner's row in the same transaction, so
+ * reading stats is a primary-key lookup instead of several COUNT queries.
+ * The row also holds a version of the user's todo collection, the entity tag
+ * of the per-user todo lists.
+ * Rows are created together with their user, and for users that predate them at
+ * startup; {@link TodoCounterReconciler} fixes any drift from writes that bypass
+ * these methods.
+ */
+@Entity
+@Table(name = "user_todo_counts")
+public class UserTodoCounts extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "user_id")
+    public Long userId;
+
+    @Column(name = "total_todos", nullable = false)
+    public long totalTodos;
+
+    @Column(name = "completed_todos", nullable = false)
+    public long completedTodos;
+
+    /**
+     * Incremented by every write to the user's todos and by a rename of the user,
+     * whose name the todo lists include. Starts at 0.
+     */
+    @ColumnDefault("0")
+    @Column(name = "todos_version", nullable = false)
+    public long todosVersion;
+
+    public long pendingTodos() {
+        return totalTodos - completedTodos;
+    }
+
+    /**
+     * Create the empty counter row of a new user, in the transaction inserting the user.
+     * Writes then only ever update the row, so concurrent first writes cannot race to insert it.
+     */
+    public static void createFor(Long userId) {
+        UserTodoCounts counts = new UserTodoCounts();
+        counts.userId = userId;
+        counts.persist();
+    }
+
+    /**
+     * Apply a change in the user's todo totals and bump the collection version.
+     * Deltas of zero only bump the version, for writes that change todos without
+     * changing the totals.
+     * A user without a row is left alone: stats fall back to a live count and the
+     * reconciler creates the row.
+     */
+    public static void adjust(Long userId, long totalDelta, long completedDelta) {
+        update("totalTodos = totalTodos + ?1, completedTodos = completedTodos + ?2,"
+                        + " todosVersion = todosVersion + 1 where userId = ?3",
+                totalDelta, completedDelta, userId);
+    }
+
+    /**
+     * Bump the collection version of every user owning one of the given todos.
+     * Users without a counter row are skipped; their lists carry no entity tag.
+     */
+    public static void touchOwners(Collection<Long> todoIds) {
+        update("update UserTodoCounts c set c.todosVersion = c.todosVersion + 1"
+                        + " where c.userId in (select t.user.id from Todo t where t.id in ?1)",
+                todoIds);
+    }
+
+    /**
+     * The user's todo collection version, or null if the user has no counter row.
+     */
+    public static Long findVersion(Long userId) {
+        List<Long> versions = getEntityManager()
+                .createQuery("select c.todosVersion from UserTodoCounts c where c.userId = :userId", Long.class)
+                .setParameter("userId", userId)
+                .getResultList();
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    /**
+     * Shift completed counters for todos about to be set to the given completion state.
+     * Must run before the todo UPDATE so only todos that actually change are counted.
+     */
+    public static void adjustForCompletion(Collection<Long> todoIds, boolean completed) {
+        String changing = "from Todo t where t.user.id = c.userId and t.id in :ids and t.completed <> :completed";
+        update("update UserTodoCounts c set c.completedTodos = c.completedTodos " + (completed ? "+" : "-")
+                        + " (select count(t) " + changing + ") where exists (select 1 " + changing + ")",
+                Parameters.with("ids", todoIds).and("completed", completed));
+    }
+
+    /**
+     * Count a user's todos directly from the todos table, without storing the result.
+     */
+    public static UserTodoCounts count(Long userId) {
+        Object[] row = getEntityManager()
+                .createQuery("select count(t), coalesce(sum(case when t.completed = true then 1 else 0 end), 0)"
+                        + " from Todo t where t.user.id = :userId", Object[].class)
+                .setParameter("userId", userId)
+                .getSingleResult();
+        UserTodoCounts counts = new UserTodoCounts();
+        counts.userId = userId;
+        counts.totalTodos = ((Number) row[0]).longValue();
+        counts.completedTodos = ((Number) row[1]).longValue();
+        return counts;
+    }
+
+    /**
+     * Stored counters for a user, or a live count when no row exists yet.
+     */
+    public static UserTodoCounts findOrCount(Long userId) {
+        UserTodoCounts counts = findById(userId);
+        return counts != null ? counts : count(userId);
+    }
+
+    /**
+     * Counters for many users at once: stored rows with one IN query, and a single
+     * GROUP BY with conditional aggregation for users that have no row yet.
+     * Users without todos get zero counts.
+     */
+    public static Map<Long, UserTodoCounts> findOrCountAll(Collection<Long> userIds) {
+        Map<Long, UserTodoCounts> countsByUserId = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return countsByUserId;
+        }
+        UserTodoCounts.<UserTodoCounts>list("userId in ?1", userIds)
+                .forEach(counts -> countsByUserId.put(counts.userId, counts));
+
+        List<Long> missing = userIds.stream()
+                .filter(userId -> !countsByUserId.containsKey(userId))
+                .toList();
+        if (!missing.isEmpty()) {
+            getEntityManager()
+                    .createQuery("select t.user.id, count(t), sum(case when t.completed = true then 1 else 0 end)"
+                            + " from Todo t where t.user.id in :userIds group by t.user.id", Object[].class)
+                    .setParameter("userIds", missing)
+                    .getResultList()
+                    .forEach(row -> {
+                        UserTodoCounts counts = new UserTodoCounts();
+                        counts.userId = (Long) row[0];
+                        counts.totalTodos = ((Number) row[1]).longValue();
+                        counts.completedTodos = ((Number) row[2]).longValue();
+                        countsByUserId.put(counts.userId, counts);
+                    });
+            for (Long userId : missing) {
+                countsByUserId.computeIfAbsent(userId, id -> {
+                    UserTodoCounts counts = new UserTodoCounts();
+                    counts.userId = id;
+                    return counts;
+                });
+            }
+        }
+        return countsByUserId;
+    }
+
+    /**
+     * IDs of counter rows after the given user ID, in order, for chunked reconciliation.
+     */
+    static List<Long> findUserIdsAfter(Long afterUserId, int limit) {
+        return getEntityManager()
+                .createQuery("select c.userId from UserTodoCounts c where c.userId > :after order by c.userId", Long.class)
+                .setParameter("after", afterUserId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Recount the given users' rows, touching only those that drifted.
+     * Drift means the todos changed, so corrected rows get a new version.
+     * The rows are locked first, in key order, so the recount starts only after
+     * concurrent {@link #adjust} calls on them have committed and its counts
+     * include their todos; a later adjust then applies on top of the recount.
+     *
+     * @return the number of corrected rows
+     */
+    static int reconcile(Collection<Long> userIds) {
+        List<Long> locked = getEntityManager()
+                .createQuery("select c.userId from UserTodoCounts c where c.userId in :ids order by c.userId", Long.class)
+                .setParameter("ids", userIds)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        String total = "(select count(t) from Todo t where t.user.id = c.userId)";
+        String completed = "(select count(t) from Todo t where t.user.id = c.userId and t.completed = true)";
+        return update("update UserTodoCounts c set c.totalTodos = " + total + ", c.completedTodos = " + completed
+                        + ", c.todosVersion = c.todosVersion + 1"
+                        + " where c.userId in ?1 and (c.totalTodos <> " + total + " or c.completedTodos <> " + completed + ")",
+                locked);
+    }
+
+    /**
+     * Create rows for users that have none yet.
+     *
+     * @return the number of created rows
+     */
+    static int createMissing() {
+        return getEntityManager()
+                .createQuery("insert into UserTodoCounts (userId, totalTodos, completedTodos)"
+                        + " select u.id,"
+                        + " (select count(t) from Todo t where t.user.id = u.id),"
+                        + " (select count(t) from Todo t where t.user.id = u.id and t.completed = true)"
+                        + " from User u where not exists (select 1 from UserTodoCounts c where c.userId = u.id)")
+                .executeUpdate();
+    }
+
+    /**
+     * Remove rows whose user no longer exists.
+     *
+     * @return the number of removed rows
+     */
+    static int deleteOrphans() {
+        return getEntityManager()
+                .createQuery("delete from UserTodoCounts c where not exists (select 1 from User u where u.id = c.userId)")
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,21 @@
+package org.swiftbeard.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request could not get a database slot within the configured wait.
+ * Mapped to 503 Service Unavailable by {@link GlobalExceptionHandler}.
+ */
+public class ConnectionLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ConnectionLimitExceededException(int limit, Duration waited) {
+        super("All " + limit + " database slots are busy; waited " + waited.toMillis() + " ms");
+        this.retryAfter = waited;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
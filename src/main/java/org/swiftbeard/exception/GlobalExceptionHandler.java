@@ -1,74 +1,87 @@
 package org.swiftbeard.exception;
 
-import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
+import org.hibernate.exception.JDBCConnectionException;
+import org.swiftbeard.metrics.DatabaseMetrics;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
 
 /**
  * Global exception handler for the application.
- * Provides consistent error responses across all endpoints.
+ * Provides consistent error responses across all endpoints, in the shape
+ * defined by {@link ErrorResponses}.
  */
 @Provider
 public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
 
+    /** SQLState class of connection exceptions: the database could not be reached or the connection was lost. */
+    private static final String CONNECTION_EXCEPTION_SQLSTATE_CLASS = "08";
+
+    /**
+     * Message of the SQLException Agroal throws when no connection frees up within the acquisition
+     * timeout. It carries no SQLState and no specific type, so it is matched only as a last resort.
+     */
+    private static final String ACQUISITION_TIMEOUT_MESSAGE = "acquisition timeout";
+
+    /** Retry-After for requests that timed out waiting for a pooled connection. */
+    private static final long ACQUISITION_TIMEOUT_RETRY_AFTER_SECONDS = 1;
+
     @Override
     public Response toResponse(Exception exception) {
+        // Routing and content negotiation failures (404, 405, 415...) already carry their response
+        if (exception instanceof WebApplicationException webApplicationException) {
+            return webApplicationException.getResponse();
+        }
+
         if (exception instanceof ConstraintViolationException) {
-            return handleConstraintViolation((ConstraintViolationException) exception);
+            return ErrorResponses.validationFailed((ConstraintViolationException) exception);
+        }
+
+        if (exception instanceof ConnectionLimitExceededException limitExceeded) {
+            return ErrorResponses.serviceUnavailable(limitExceeded.getMessage(),
+                    Math.max(1, limitExceeded.getRetryAfter().toSeconds()));
+        }
+
+        if (isConnectionUnavailable(exception)) {
+            DatabaseMetrics.recordAcquisitionTimeout();
+            return ErrorResponses.serviceUnavailable("No database connection available",
+                    ACQUISITION_TIMEOUT_RETRY_AFTER_SECONDS);
         }
 
         // Log the exception (in production, use proper logging)
         System.err.println("Unhandled exception: " + exception.getMessage());
         exception.printStackTrace();
 
-        // Generic error response
-        ErrorResponse error = new ErrorResponse();
-        error.error = "Internal server error";
-        error.message = exception.getMessage();
-
-        return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(error)
-                .build();
+        return ErrorResponses.internalError(exception);
     }
 
-    private Response handleConstraintViolation(ConstraintViolationException exception) {
-        Set<ConstraintViolation<?>> violations = exception.getConstraintViolations();
-
-        Map<String, String> errors = violations.stream()
-                .collect(Collectors.toMap(
-                        violation -> getPropertyName(violation.getPropertyPath().toString()),
-                        ConstraintViolation::getMessage,
-                        (existing, replacement) -> existing + "; " + replacement
-                ));
-
-        ValidationErrorResponse error = new ValidationErrorResponse();
-        error.error = "Validation failed";
-        error.violations = errors;
-
-        return Response.status(Response.Status.BAD_REQUEST)
-                .entity(error)
-                .build();
-    }
-
-    private String getPropertyName(String propertyPath) {
-        String[] parts = propertyPath.split("\\.");
-        return parts[parts.length - 1];
-    }
-
-    public static class ErrorResponse {
-        public String error;
-        public String message;
-    }
-
-    public static class ValidationErrorResponse {
-        public String error;
-        public Map<String, String> violations;
+    /**
+     * Whether the request failed for lack of a database connection, either because the pool
+     * timed out or because the database could not be reached. Decided by exception type and
+     * SQLState anywhere in the cause chain, then by Agroal's untyped timeout message.
+     */
+    private static boolean isConnectionUnavailable(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException || cause instanceof JDBCConnectionException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && sqlException.getSQLState().startsWith(CONNECTION_EXCEPTION_SQLSTATE_CLASS)) {
+                return true;
+            }
+        }
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() == null
+                    && sqlException.getMessage() != null
+                    && sqlException.getMessage().contains(ACQUISITION_TIMEOUT_MESSAGE)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,58 @@
+package org.swiftbeard.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.swiftbeard.concurrency.ConnectionLimiter;
+
+/**
+ * Database saturation meters that complement the agroal_* pool meters.
+ * Requests waiting on the admission limit never reach the pool, so
+ * agroal_awaiting_count alone understates saturation; and Agroal has no meter
+ * for acquisition timeouts, which surface only as exceptions.
+ */
+@Singleton
+public class DatabaseMetrics implements MeterBinder {
+
+    static final String ACQUISITION_TIMEOUTS = "agroal.acquisition.timeouts";
+    private static final String DATASOURCE_TAG = "datasource";
+    private static final String DEFAULT_DATASOURCE = "default";
+
+    @Inject
+    ConnectionLimiter limiter;
+
+    /**
+     * Count a request that failed because no pooled connection was available in time
+     * or the database could not be reached.
+     */
+    public static void recordAcquisitionTimeout() {
+        Metrics.counter(ACQUISITION_TIMEOUTS, DATASOURCE_TAG, DEFAULT_DATASOURCE).increment();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("database.concurrency.limit", limiter, ConnectionLimiter::limit)
+                .description("Maximum concurrent database-bound requests")
+                .register(registry);
+        Gauge.builder("database.concurrency.in.flight", limiter, ConnectionLimiter::inFlight)
+                .description("Requests holding an admission slot")
+                .register(registry);
+        Gauge.builder("database.concurrency.waiting", limiter, ConnectionLimiter::waiting)
+                .description("Requests waiting for an admission slot")
+                .register(registry);
+        FunctionCounter.builder("database.concurrency.rejected", limiter, ConnectionLimiter::rejectedCount)
+                .description("Requests answered with 503 after waiting for the acquire timeout")
+                .register(registry);
+
+        // Registered up front so the series reads 0 rather than being absent until the first timeout
+        Counter.builder(ACQUISITION_TIMEOUTS)
+                .description("Requests that failed because no pooled connection was available in time")
+                .tag(DATASOURCE_TAG, DEFAULT_DATASOURCE)
+                .register(registry);
+    }
+}
@@ -0,0 +1,41 @@
+package org.swiftbeard.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times statement and batch execution for the current request.
+ * Hibernate creates one instance per session, registered through
+ * hibernate.session.events.auto in application.properties.
+ */
+public class JdbcTimingListener implements SessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(System.nanoTime() - batchStart);
+    }
+
+    private static void record(long nanos) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.recordJdbcTime(nanos);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.swiftbeard.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.swiftbeard.cache.BloomFilter;
+import org.swiftbeard.cache.UserKeyFilters;
+
+/**
+ * False-positive rates of the sign-up uniqueness Bloom filters.
+ * Deleted users stay in the filters until restart, so the observed rate drifts
+ * above the configured target with churn; alert on the gap between the two.
+ */
+@Singleton
+public class KeyFilterMetrics implements MeterBinder {
+
+    private static final String FILTER_TAG = "filter";
+
+    @Inject
+    UserKeyFilters keyFilters;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "username", keyFilters.usernames());
+        bind(registry, "email", keyFilters.emails());
+    }
+
+    private static void bind(MeterRegistry registry, String name, BloomFilter filter) {
+        Gauge.builder("users.key.filter.false.positive.rate", filter, BloomFilter::falsePositiveRate)
+                .description("Observed share of absent values the filter answered \"maybe\" for")
+                .tag(FILTER_TAG, name)
+                .register(registry);
+        Gauge.builder("users.key.filter.expected.false.positive.rate", filter, BloomFilter::expectedFalsePositiveRate)
+                .description("False-positive rate the filter was sized for")
+                .tag(FILTER_TAG, name)
+                .register(registry);
+    }
+}
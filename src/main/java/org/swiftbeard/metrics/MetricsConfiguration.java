@@ -0,0 +1,46 @@
+package org.swiftbeard.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+/**
+ * Micrometer configuration for the Prometheus endpoint at /q/metrics.
+ * Request timers publish histogram buckets, so latency percentiles can be aggregated
+ * across instances and time windows instead of being precomputed per instance.
+ */
+@Singleton
+public class MetricsConfiguration {
+
+    private static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+
+    @ConfigProperty(name = "metrics.http-server.histogram.minimum-expected", defaultValue = "1ms")
+    Duration minimumExpected;
+
+    @ConfigProperty(name = "metrics.http-server.histogram.maximum-expected", defaultValue = "10s")
+    Duration maximumExpected;
+
+    @Produces
+    @Singleton
+    public MeterFilter httpServerHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().equals(HTTP_SERVER_REQUESTS)) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) minimumExpected.toNanos())
+                        .maximumExpectedValue((double) maximumExpected.toNanos())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
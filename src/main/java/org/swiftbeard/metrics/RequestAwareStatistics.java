@@ -0,0 +1,51 @@
+package org.swiftbeard.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Hibernate statistics that also attribute query rows and entity loads to the current request.
+ * Installed through hibernate.stats.factory in application.properties; requires
+ * quarkus.hibernate-orm.statistics=true, as Hibernate skips these calls otherwise.
+ * <p>
+ * StatisticsImpl is internal to Hibernate ORM; this class is pinned to the version in the
+ * Quarkus 3.29 platform BOM. SqlAccountingFilterTest checks that it is installed and that
+ * its hooks are still called, so re-run it on every Quarkus upgrade.
+ */
+public class RequestAwareStatistics extends StatisticsImpl {
+
+    public RequestAwareStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void queryExecuted(String query, int rows, long time) {
+        super.queryExecuted(query, rows, time);
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.recordQueryRows(rows);
+        }
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+        super.loadEntity(entityName);
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.recordEntityLoad();
+        }
+    }
+
+    /**
+     * Referenced by name from hibernate.stats.factory.
+     */
+    public static class Factory implements StatisticsFactory {
+
+        @Override
+        public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+            return new RequestAwareStatistics(sessionFactory);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.swiftbeard.metrics;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import jakarta.enterprise.context.RequestScoped;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL work done on behalf of the current HTTP request.
+ * Fed by the Hibernate hooks ({@link SqlStatementRecorder}, {@link JdbcTimingListener},
+ * {@link RequestAwareStatistics}); work outside a request, such as startup and
+ * scheduled jobs, is not recorded.
+ */
+@RequestScoped
+public class RequestSqlStats {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern SEQUENCE_CALL = Pattern.compile("\\bnext value for\\b|\\bnextval\\b");
+    private static final Pattern FROM_CLAUSE = Pattern.compile("\\bfrom\\b");
+
+    private int statements;
+    private long queryRows;
+    private long entityLoads;
+    private long jdbcNanos;
+    private final Map<String, Integer> selectShapes = new HashMap<>();
+
+    /**
+     * The stats of the active request, or null outside a request.
+     */
+    static RequestSqlStats current() {
+        ArcContainer container = Arc.container();
+        if (container == null || !container.requestContext().isActive()) {
+            return null;
+        }
+        return container.instance(RequestSqlStats.class).get();
+    }
+
+    void recordStatement(String sql) {
+        statements++;
+        String shape = shapeOf(sql);
+        if (readsRows(shape)) {
+            selectShapes.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Whether a statement is a select that reads table rows, the kind an N+1 repeats.
+     * ID generator calls ({@code select next value for todos_seq}, {@code select nextval(...)})
+     * and other selects without a FROM clause repeat legitimately, e.g. once per
+     * allocation block in a large batch insert.
+     */
+    static boolean readsRows(String shape) {
+        return (shape.startsWith("select ") || shape.startsWith("with "))
+                && !SEQUENCE_CALL.matcher(shape).find()
+                && FROM_CLAUSE.matcher(shape).find();
+    }
+
+    void recordQueryRows(int rows) {
+        queryRows += rows;
+    }
+
+    void recordEntityLoad() {
+        entityLoads++;
+    }
+
+    void recordJdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    /** Rows returned by HQL and native queries. */
+    public long queryRows() {
+        return queryRows;
+    }
+
+    /** Entities read from the database, by query, primary key or lazy association. */
+    public long entityLoads() {
+        return entityLoads;
+    }
+
+    /** Time spent executing statements, excluding result set reads. */
+    public long jdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * The select shape executed most often in this request, or null if there was none.
+     */
+    public Map.Entry<String, Integer> mostRepeatedSelect() {
+        Map.Entry<String, Integer> most = null;
+        for (Map.Entry<String, Integer> entry : selectShapes.entrySet()) {
+            if (most == null || entry.getValue() > most.getValue()) {
+                most = entry;
+            }
+        }
+        return most;
+    }
+
+    /**
+     * Normalize a statement so executions that differ only in literals or the
+     * number of IN-list parameters share one shape.
+     */
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase();
+    }
+}
@@ -0,0 +1,18 @@
+package org.swiftbeard.metrics;
+
+import jakarta.ws.rs.NameBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Records the SQL statements, rows and JDBC time of each request to the annotated resources.
+ * See {@link SqlAccountingFilter}.
+ */
+@NameBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlAccounted {
+}
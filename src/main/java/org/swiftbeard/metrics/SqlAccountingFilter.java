@@ -0,0 +1,113 @@
+package org.swiftbeard.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the SQL work of each request to a {@link SqlAccounted} resource.
+ * Always recorded as meters tagged by endpoint; also returned as X-SQL-* response
+ * headers when sql-accounting.headers.enabled is set (dev and test).
+ *
+ * A select shape executed more than sql-accounting.repeated-select-threshold times in
+ * one request is flagged as a likely N+1: typically a lazy association read per row.
+ */
+@Provider
+@SqlAccounted
+public class SqlAccountingFilter implements ContainerResponseFilter {
+
+    private static final Logger LOG = Logger.getLogger(SqlAccountingFilter.class);
+
+    @ConfigProperty(name = "sql-accounting.headers.enabled", defaultValue = "false")
+    boolean headersEnabled;
+
+    @ConfigProperty(name = "sql-accounting.repeated-select-threshold", defaultValue = "5")
+    int repeatedSelectThreshold;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    RequestSqlStats stats;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    // (endpoint, shape) pairs already logged, so each suspect is reported once
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        String endpoint = resourceInfo.getResourceClass().getSimpleName()
+                + "." + resourceInfo.getResourceMethod().getName();
+
+        Map.Entry<String, Integer> mostRepeated = stats.mostRepeatedSelect();
+        int maxRepeats = mostRepeated != null ? mostRepeated.getValue() : 0;
+        boolean suspectedNPlusOne = maxRepeats > repeatedSelectThreshold;
+
+        record(endpoint, suspectedNPlusOne);
+        if (suspectedNPlusOne && reported.add(endpoint + "|" + mostRepeated.getKey())) {
+            LOG.warnf("Likely N+1 in %s: the same select ran %d times in one request: %s",
+                    endpoint, maxRepeats, mostRepeated.getKey());
+        }
+
+        if (headersEnabled) {
+            MultivaluedMap<String, Object> headers = response.getHeaders();
+            headers.putSingle("X-SQL-Statements", stats.statements());
+            headers.putSingle("X-SQL-Query-Rows", stats.queryRows());
+            headers.putSingle("X-SQL-Entity-Loads", stats.entityLoads());
+            headers.putSingle("X-SQL-JDBC-Time-Ms", String.format(Locale.ROOT, "%.3f", stats.jdbcNanos() / 1_000_000.0));
+            headers.putSingle("X-SQL-Max-Select-Repeats", maxRepeats);
+            if (suspectedNPlusOne) {
+                headers.putSingle("X-SQL-N-Plus-One", "suspected");
+            }
+        }
+    }
+
+    private void record(String endpoint, boolean suspectedNPlusOne) {
+        DistributionSummary.builder("sql.request.statements")
+                .description("SQL statements executed per request")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(stats.statements());
+        DistributionSummary.builder("sql.request.query.rows")
+                .description("Rows returned by queries per request")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(stats.queryRows());
+        DistributionSummary.builder("sql.request.entity.loads")
+                .description("Entities read from the database per request")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(stats.entityLoads());
+        Timer.builder("sql.request.jdbc.time")
+                .description("Statement execution time per request")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(stats.jdbcNanos(), TimeUnit.NANOSECONDS);
+        if (suspectedNPlusOne) {
+            Counter.builder("sql.request.n.plus.one")
+                    .description("Requests in which one select shape repeated beyond the threshold")
+                    .tag("endpoint", endpoint)
+                    .register(registry)
+                    .increment();
+        }
+    }
+}
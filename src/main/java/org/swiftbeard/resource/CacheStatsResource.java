@@ -0,0 +1,174 @@
+package org.swiftbeard.resource;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.swiftbeard.cache.BloomFilter;
+import org.swiftbeard.cache.JsonResponseCache;
+import org.swiftbeard.cache.UserKeyFilters;
+import org.swiftbeard.cache.UserNaturalKeyCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * REST Resource exposing second-level cache statistics.
+ * Reports hit, miss, put and remove counts for every cache region,
+ * plus the application-level natural-key caches, uniqueness filters and
+ * serialized response cache.
+ */
+@Path("/api/v1/cache")
+@Produces(MediaType.APPLICATION_JSON)
+public class CacheStatsResource {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    UserNaturalKeyCache naturalKeyCache;
+
+    @Inject
+    UserKeyFilters keyFilters;
+
+    @Inject
+    JsonResponseCache responseCache;
+
+    /**
+     * Get per-region second-level cache statistics.
+     * GET /api/v1/cache/stats
+     */
+    @GET
+    @Path("/stats")
+    public Response getCacheStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+
+        List<RegionStats> regions = new ArrayList<>();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+
+            RegionStats stats = new RegionStats();
+            stats.region = regionName;
+            stats.hitCount = region.getHitCount();
+            stats.missCount = region.getMissCount();
+            stats.putCount = region.getPutCount();
+            stats.removeCount = region.getRemoveCount();
+            stats.elementCountInMemory = region.getElementCountInMemory();
+            long lookups = stats.hitCount + stats.missCount;
+            stats.hitRatio = lookups == 0 ? 0.0 : (double) stats.hitCount / lookups;
+            regions.add(stats);
+        }
+
+        CacheStats response = new CacheStats();
+        response.statisticsEnabled = statistics.isStatisticsEnabled();
+        response.regions = regions;
+        response.naturalKeyCaches = List.of(
+                naturalKeyStats("users.username", naturalKeyCache.usernameStats(), naturalKeyCache.usernameSize()),
+                naturalKeyStats("users.email", naturalKeyCache.emailStats(), naturalKeyCache.emailSize()));
+        response.keyFilters = List.of(
+                filterStats("users.username", keyFilters.usernames()),
+                filterStats("users.email", keyFilters.emails()));
+        response.responseCache = responseCacheStats();
+
+        return Response.ok(response).build();
+    }
+
+    private static NaturalKeyCacheStats naturalKeyStats(
+            String name, com.github.benmanes.caffeine.cache.stats.CacheStats cacheStats, long size) {
+        NaturalKeyCacheStats stats = new NaturalKeyCacheStats();
+        stats.cache = name;
+        stats.hitCount = cacheStats.hitCount();
+        stats.missCount = cacheStats.missCount();
+        stats.evictionCount = cacheStats.evictionCount();
+        stats.size = size;
+        stats.hitRatio = cacheStats.hitRate();
+        return stats;
+    }
+
+    private static KeyFilterStats filterStats(String name, BloomFilter filter) {
+        KeyFilterStats stats = new KeyFilterStats();
+        stats.filter = name;
+        stats.checkCount = filter.checkCount();
+        stats.positiveCount = filter.positiveCount();
+        stats.falsePositiveCount = filter.falsePositiveCount();
+        stats.falsePositiveRate = filter.falsePositiveRate();
+        stats.expectedFalsePositiveRate = filter.expectedFalsePositiveRate();
+        return stats;
+    }
+
+    private ResponseCacheStats responseCacheStats() {
+        com.github.benmanes.caffeine.cache.stats.CacheStats cacheStats = responseCache.stats();
+        ResponseCacheStats stats = new ResponseCacheStats();
+        stats.hitCount = cacheStats.hitCount();
+        stats.missCount = cacheStats.missCount();
+        stats.evictionCount = cacheStats.evictionCount();
+        stats.size = responseCache.size();
+        stats.sizeBytes = responseCache.weightBytes();
+        stats.maximumSizeBytes = responseCache.maximumWeightBytes();
+        stats.hitRatio = cacheStats.hitRate();
+        return stats;
+    }
+
+    // Inner classes for responses
+    public static class CacheStats {
+        public boolean statisticsEnabled;
+        public List<RegionStats> regions;
+        public List<NaturalKeyCacheStats> naturalKeyCaches;
+        public List<KeyFilterStats> keyFilters;
+        public ResponseCacheStats responseCache;
+    }
+
+    public static class RegionStats {
+        public String region;
+        public long hitCount;
+        public long missCount;
+        public long putCount;
+        // Entries evicted or invalidated through Hibernate, e.g. after updates and bulk statements
+        public long removeCount;
+        public long elementCountInMemory;
+        public double hitRatio;
+    }
+
+    public static class NaturalKeyCacheStats {
+        public String cache;
+        public long hitCount;
+        public long missCount;
+        // Entries dropped by the size bound; explicit invalidations are not counted
+        public long evictionCount;
+        public long size;
+        public double hitRatio;
+    }
+
+    public static class KeyFilterStats {
+        public String filter;
+        public long checkCount;
+        public long positiveCount;
+        // Positives for which the database lookup found nothing
+        public long falsePositiveCount;
+        public double falsePositiveRate;
+        public double expectedFalsePositiveRate;
+    }
+
+    public static class ResponseCacheStats {
+        public long hitCount;
+        public long missCount;
+        // Entries dropped by the size bound; invalidations by write paths are not counted
+        public long evictionCount;
+        public long size;
+        // Off-heap bytes held by the cached responses
+        public long sizeBytes;
+        public long maximumSizeBytes;
+        public double hitRatio;
+    }
+}
@@ -0,0 +1,56 @@
+package org.swiftbeard.resource;
+
+import jakarta.ws.rs.core.EntityTag;
+import org.swiftbeard.entity.Todo;
+import org.swiftbeard.entity.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Strong entity tags for single-resource and per-user list representations.
+ * A tag is derived from the ID and the updatedAt timestamps or version counter
+ * the representation depends on, so it can be computed from a version-only
+ * query without loading or serializing the entities.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static EntityTag of(User user) {
+        return user(user.id, user.updatedAt);
+    }
+
+    static EntityTag user(Long id, LocalDateTime updatedAt) {
+        return new EntityTag(id + "-" + version(updatedAt));
+    }
+
+    static EntityTag of(Todo todo) {
+        return todo(todo.id, todo.updatedAt, todo.user.updatedAt);
+    }
+
+    /**
+     * The owner's timestamp is part of the tag because the todo representation
+     * includes the user name.
+     */
+    static EntityTag todo(Long id, LocalDateTime updatedAt, LocalDateTime userUpdatedAt) {
+        return new EntityTag(id + "-" + version(updatedAt) + "." + version(userUpdatedAt));
+    }
+
+    /**
+     * Tag of a user's todo lists, whatever the page or filter: the collection
+     * version changes whenever any of the user's todos do.
+     */
+    static EntityTag todoList(Long userId, long version) {
+        return new EntityTag(userId + "-v" + version);
+    }
+
+    private static String version(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return "0";
+        }
+        long micros = timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+        return Long.toString(micros, 36);
+    }
+}
@@ -1,105 +1,267 @@
 package org.swiftbeard.resource;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.swiftbeard.cache.JsonResponseCache;
+import org.swiftbeard.concurrency.ConnectionLimited;
+import org.swiftbeard.concurrency.ConnectionLimiter;
+import org.swiftbeard.dto.CountMode;
+import org.swiftbeard.dto.PageCursor;
+import org.swiftbeard.dto.TodoBulkUpdateRequest;
 import org.swiftbeard.dto.TodoCreateRequest;
+import org.swiftbeard.dto.TodoIdsRequest;
 import org.swiftbeard.dto.TodoResponse;
+import org.swiftbeard.dto.TodoResponseProjection;
 import org.swiftbeard.dto.TodoUpdateRequest;
 import org.swiftbeard.entity.Todo;
 import org.swiftbeard.entity.User;
-
+import org.swiftbeard.entity.UserTodoCounts;
+import org.swiftbeard.exception.ErrorResponses.ErrorResponse;
+import org.swiftbeard.metrics.SqlAccounted;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * REST Resource for Todo CRUD operations.
  * Implements best practices for RESTful API design.
+ * Runs on virtual threads when quarkus.virtual-threads.enabled=true, with
+ * concurrent database work bounded by the connection pool size.
  */
 @Path("/api/v1/todos")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@SqlAccounted
 public class TodoResource {
 
+    static final String NDJSON = "application/x-ndjson";
+
+    static final int MAX_BATCH_SIZE = 5000;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    JsonResponseCache responseCache;
+
+    @Inject
+    ConnectionLimiter connectionLimiter;
+
+    @ConfigProperty(name = "todos.export.transaction-timeout", defaultValue = "3600")
+    int exportTimeoutSeconds;
+
+    @ConfigProperty(name = "quarkus.hibernate-orm.jdbc.statement-batch-size", defaultValue = "20")
+    int statementBatchSize;
+
     /**
      * Get all todos with optional pagination and filtering.
      * GET /api/v1/todos?page=0&size=20&userId=1&completed=true
+     *
+     * Passing {@code after} switches to keyset pagination: an empty value starts
+     * from the first todo, and each full page carries the cursor of the next page
+     * in the X-Next-Cursor header.
+     * GET /api/v1/todos?after=&size=20&completed=false
+     *
+     * The {@code count} parameter selects how X-Total-Count is computed:
+     * exact (default), estimated or none.
      */
+    @ConnectionLimited
     @GET
     public Response getAllTodos(
             @QueryParam("page") @DefaultValue("0") @Min(0) int page,
             @QueryParam("size") @DefaultValue("20") @Min(1) int size,
             @QueryParam("userId") Long userId,
-            @QueryParam("completed") Boolean completed) {
-
-        List<Todo> todos;
-
-        if (userId != null && completed != null) {
-            todos = Todo.findByUserIdAndCompleted(userId, completed);
-        } else if (userId != null) {
-            todos = Todo.findByUserId(userId);
-        } else if (completed != null) {
-            todos = Todo.findCompletedTodos(completed);
-        } else {
-            todos = Todo.findAll()
-                    .page(page, size)
-                    .list();
+            @QueryParam("completed") Boolean completed,
+            @QueryParam("after") String after,
+            @QueryParam("count") @DefaultValue("exact") String count) {
+
+        CountMode countMode;
+        try {
+            countMode = CountMode.parse(count);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build();
         }
 
-        List<TodoResponse> response = todos.stream()
-                .map(TodoResponse::from)
-                .collect(Collectors.toList());
+        Long totalCount = switch (countMode) {
+            case EXACT -> Todo.countFiltered(userId, completed);
+            // Planner statistics only describe the whole table; filtered counts stay exact
+            case ESTIMATED -> userId == null && completed == null
+                    ? Todo.estimateCount()
+                    : Todo.countFiltered(userId, completed);
+            case NONE -> null;
+        };
 
-        long totalCount = Todo.count();
-
-        return Response.ok(response)
-                .header("X-Total-Count", totalCount)
-                .header("X-Page", page)
-                .header("X-Page-Size", size)
-                .build();
+        return listTodos(userId, completed, page, size, after, totalCount, null);
     }
 
     /**
-     * Get all todos for a specific user.
-     * GET /api/v1/todos/user/{userId}
+     * Get all todos for a specific user with optional pagination.
+     * GET /api/v1/todos/user/{userId}?page=0&size=20&completed=false
+     * GET /api/v1/todos/user/{userId}?after=&size=20
+     *
+     * The ETag is the user's todo collection version, read by primary key from
+     * the counter row; an If-None-Match hit returns 304 without querying todos.
      */
+    @ConnectionLimited
     @GET
     @Path("/user/{userId}")
     public Response getTodosByUserId(
             @PathParam("userId") Long userId,
-            @QueryParam("completed") Boolean completed) {
+            @QueryParam("completed") Boolean completed,
+            @QueryParam("page") @DefaultValue("0") @Min(0) int page,
+            @QueryParam("size") @DefaultValue("20") @Min(1) int size,
+            @QueryParam("after") String after,
+            @Context Request request) {
 
-        User user = User.findById(userId);
-        if (user == null) {
+        // Counter rows are deleted with their user, so only users without one need a lookup
+        Long version = UserTodoCounts.findVersion(userId);
+        if (version == null && User.findById(userId) == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity(new ErrorResponse("User not found with id: " + userId))
                     .build();
         }
 
-        List<Todo> todos;
-        if (completed != null) {
-            todos = Todo.findByUserIdAndCompleted(userId, completed);
-        } else {
-            todos = Todo.findByUserId(userId);
+        EntityTag tag = version != null ? EntityTags.todoList(userId, version) : null;
+        if (tag != null) {
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+            if (notModified != null) {
+                return notModified.tag(tag).build();
+            }
         }
 
-        List<TodoResponse> response = todos.stream()
-                .map(TodoResponse::from)
-                .collect(Collectors.toList());
+        return listTodos(userId, completed, page, size, after, null, tag);
+    }
 
-        return Response.ok(response).build();
+    /**
+     * Export todos as newline-delimited JSON, with optional filtering.
+     * GET /api/v1/todos/export?userId=1&completed=false
+     *
+     * Rows are read through a forward-only cursor using the configured JDBC fetch
+     * size and projected straight into TodoResponse, then written one line at a
+     * time, so memory use stays constant regardless of how many todos match.
+     *
+     * The method itself does no database work; the body is written after it returns,
+     * so the stream takes a connection slot of its own for as long as it holds a
+     * connection.
+     */
+    @GET
+    @Path("/export")
+    @Produces(NDJSON)
+    public Response exportTodos(
+            @QueryParam("userId") Long userId,
+            @QueryParam("completed") Boolean completed) {
+
+        StreamingOutput stream = output -> {
+            try {
+                connectionLimiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a database slot");
+            }
+            try {
+                QuarkusTransaction.requiringNew()
+                        .timeout(exportTimeoutSeconds)
+                        .run(() -> writeNdjson(output, userId, completed));
+            } finally {
+                connectionLimiter.release();
+            }
+        };
+
+        return Response.ok(stream, NDJSON).build();
     }
 
     /**
      * Get a todo by ID.
      * GET /api/v1/todos/{id}
+     *
+     * The response carries a strong ETag. With If-None-Match the tag is first
+     * computed from a version-only query, and a match returns 304 Not Modified
+     * without loading or serializing the todo.
+     *
+     * Serialized responses are cached; a hit answers both plain and conditional
+     * requests without touching the database or taking a connection slot.
      */
     @GET
     @Path("/{id}")
-    public Response getTodoById(@PathParam("id") Long id) {
+    public Response getTodoById(@PathParam("id") Long id,
+                                @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                @Context Request request) throws InterruptedException {
+        JsonResponseCache.Entry cached = responseCache.get(TodoResponse.class, id);
+        if (cached != null) {
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(cached.tag());
+            return (notModified != null ? notModified : Response.ok(cached.body()))
+                    .tag(cached.tag())
+                    .build();
+        }
+
+        // Only a cache miss needs a connection
+        connectionLimiter.acquire();
+        try {
+            return loadTodo(id, ifNoneMatch, request);
+        } finally {
+            connectionLimiter.release();
+        }
+    }
+
+    private Response loadTodo(Long id, String ifNoneMatch, Request request) {
+        if (ifNoneMatch != null) {
+            Optional<Todo.Versions> versions = Todo.findVersions(id);
+            if (versions.isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(new ErrorResponse("Todo not found with id: " + id))
+                        .build();
+            }
+            EntityTag tag = EntityTags.todo(id, versions.get().todo(), versions.get().owner());
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+            if (notModified != null) {
+                return notModified.tag(tag).build();
+            }
+        }
+
+        long stamp = responseCache.stamp();
         Todo todo = Todo.findById(id);
 
         if (todo == null) {
@@ -108,13 +270,16 @@ public class TodoResource {
                     .build();
         }
 
-        return Response.ok(TodoResponse.from(todo)).build();
+        EntityTag tag = EntityTags.of(todo);
+        byte[] json = responseCache.put(TodoResponse.class, id, todo.user.id, TodoResponse.from(todo), tag, stamp);
+        return Response.ok(json).tag(tag).build();
     }
 
     /**
      * Create a new todo.
      * POST /api/v1/todos
      */
+    @ConnectionLimited
     @POST
     @Transactional
     public Response createTodo(@Valid TodoCreateRequest request) {
@@ -134,21 +299,121 @@ public class TodoResource {
         todo.dueDate = request.dueDate;
 
         todo.persist();
+        UserTodoCounts.adjust(user.id, 1, todo.completed ? 1 : 0);
 
         return Response.status(Response.Status.CREATED)
                 .entity(TodoResponse.from(todo))
+                .tag(EntityTags.of(todo))
                 .build();
     }
 
+    /**
+     * Create many todos in one request.
+     * POST /api/v1/todos/batch
+     *
+     * Each item is validated on its own and reported in the response, so one bad
+     * item does not reject the batch. All referenced users are resolved with a
+     * single IN query and the valid todos are inserted through JDBC batching.
+     */
+    @ConnectionLimited
+    @POST
+    @Path("/batch")
+    @Transactional
+    public Response createTodos(@NotEmpty @Size(max = MAX_BATCH_SIZE) List<TodoCreateRequest> requests) {
+        Set<Long> userIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(request -> request.userId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<Long, User> usersById = userIds.isEmpty()
+                ? Map.of()
+                : User.<User>list("id in ?1", userIds).stream()
+                        .collect(Collectors.toMap(user -> user.id, Function.identity()));
+
+        BatchCreateResponse response = new BatchCreateResponse();
+        int pending = 0;
+        // Per user: {created, created as completed}, applied to the counters once at the end
+        Map<Long, long[]> counterDeltas = new HashMap<>();
+
+        for (int index = 0; index < requests.size(); index++) {
+            TodoCreateRequest request = requests.get(index);
+            BatchItemResult result = new BatchItemResult();
+            result.index = index;
+            response.results.add(result);
+
+            if (request == null) {
+                result.status = Response.Status.BAD_REQUEST.getStatusCode();
+                result.error = "Item is required";
+                continue;
+            }
+
+            Set<ConstraintViolation<TodoCreateRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                result.status = Response.Status.BAD_REQUEST.getStatusCode();
+                result.error = "Validation failed";
+                result.violations = violations.stream()
+                        .collect(Collectors.toMap(
+                                violation -> violation.getPropertyPath().toString(),
+                                ConstraintViolation::getMessage,
+                                (existing, replacement) -> existing + "; " + replacement));
+                continue;
+            }
+
+            User user = usersById.get(request.userId);
+            if (user == null) {
+                result.status = Response.Status.BAD_REQUEST.getStatusCode();
+                result.error = "User not found with id: " + request.userId;
+                continue;
+            }
+
+            Todo todo = new Todo();
+            todo.title = request.title;
+            todo.description = request.description;
+            todo.completed = request.completed != null ? request.completed : false;
+            todo.user = user;
+            todo.dueDate = request.dueDate;
+            todo.persist();
+
+            result.status = Response.Status.CREATED.getStatusCode();
+            result.id = todo.id;
+
+            long[] delta = counterDeltas.computeIfAbsent(user.id, key -> new long[2]);
+            delta[0]++;
+            if (todo.completed) {
+                delta[1]++;
+            }
+
+            // Send each full JDBC batch and drop it from the persistence context
+            if (++pending % statementBatchSize == 0) {
+                Todo.flush();
+                Todo.getEntityManager().clear();
+            }
+        }
+
+        counterDeltas.forEach((userId, delta) -> UserTodoCounts.adjust(userId, delta[0], delta[1]));
+
+        response.created = pending;
+        response.failed = requests.size() - pending;
+
+        return Response.ok(response).build();
+    }
+
     /**
      * Update an existing todo.
      * PUT /api/v1/todos/{id}
+     *
+     * With If-Match the update only applies if the tag still matches;
+     * otherwise 412 Precondition Failed is returned.
      */
+    @ConnectionLimited
     @PUT
     @Path("/{id}")
     @Transactional
-    public Response updateTodo(@PathParam("id") Long id, @Valid TodoUpdateRequest request) {
-        Todo todo = Todo.findById(id);
+    public Response updateTodo(@PathParam("id") Long id, @Valid TodoUpdateRequest request,
+                               @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                               @Context Request httpRequest) {
+        Todo todo = findForWrite(id, ifMatch);
 
         if (todo == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -156,6 +421,11 @@ public class TodoResource {
                     .build();
         }
 
+        Response preconditionFailed = checkIfMatch(todo, ifMatch, httpRequest);
+        if (preconditionFailed != null) {
+            return preconditionFailed;
+        }
+
         // Update fields if provided
         if (request.title != null) {
             todo.title = request.title;
@@ -163,27 +433,37 @@ public class TodoResource {
         if (request.description != null) {
             todo.description = request.description;
         }
-        if (request.completed != null) {
+        long completedDelta = 0;
+        if (request.completed != null && !request.completed.equals(todo.completed)) {
             todo.completed = request.completed;
+            completedDelta = todo.completed ? 1 : -1;
         }
         if (request.dueDate != null) {
             todo.dueDate = request.dueDate;
         }
 
-        todo.persist();
+        // Flush so @PreUpdate has bumped updatedAt before the response and its ETag are built
+        todo.persistAndFlush();
+        UserTodoCounts.adjust(todo.user.id, 0, completedDelta);
+        responseCache.invalidate(TodoResponse.class, id);
 
-        return Response.ok(TodoResponse.from(todo)).build();
+        return Response.ok(TodoResponse.from(todo)).tag(EntityTags.of(todo)).build();
     }
 
     /**
      * Toggle todo completion status.
      * PATCH /api/v1/todos/{id}/toggle
+     *
+     * Honors If-Match like the full update.
      */
+    @ConnectionLimited
     @PATCH
     @Path("/{id}/toggle")
     @Transactional
-    public Response toggleTodoCompletion(@PathParam("id") Long id) {
-        Todo todo = Todo.findById(id);
+    public Response toggleTodoCompletion(@PathParam("id") Long id,
+                                         @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                                         @Context Request request) {
+        Todo todo = findForWrite(id, ifMatch);
 
         if (todo == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -191,16 +471,78 @@ public class TodoResource {
                     .build();
         }
 
+        Response preconditionFailed = checkIfMatch(todo, ifMatch, request);
+        if (preconditionFailed != null) {
+            return preconditionFailed;
+        }
+
         todo.completed = !todo.completed;
-        todo.persist();
+        todo.persistAndFlush();
+        UserTodoCounts.adjust(todo.user.id, 0, todo.completed ? 1 : -1);
+        responseCache.invalidate(TodoResponse.class, id);
+
+        return Response.ok(TodoResponse.from(todo)).tag(EntityTags.of(todo)).build();
+    }
+
+    /**
+     * Apply the same field changes to many todos.
+     * PATCH /api/v1/todos/bulk
+     *
+     * Runs as one set-based UPDATE ... WHERE id IN (...) instead of loading and
+     * dirty-checking each todo. Unknown IDs are ignored.
+     */
+    @ConnectionLimited
+    @PATCH
+    @Path("/bulk")
+    @Transactional
+    public Response bulkUpdateTodos(@Valid @NotNull TodoBulkUpdateRequest request) {
+        if (request.title == null && request.description == null
+                && request.completed == null && request.dueDate == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("At least one field to update is required"))
+                    .build();
+        }
+
+        int updated = Todo.updateByIds(request.ids, request.title, request.description,
+                request.completed, request.dueDate);
+        responseCache.invalidate(TodoResponse.class, request.ids);
+
+        return Response.ok(bulkUpdateResponse(request.ids, updated)).build();
+    }
+
+    /**
+     * Mark many todos as completed.
+     * PATCH /api/v1/todos/bulk/complete
+     */
+    @ConnectionLimited
+    @PATCH
+    @Path("/bulk/complete")
+    @Transactional
+    public Response bulkCompleteTodos(@Valid @NotNull TodoIdsRequest request) {
+        int updated = Todo.updateByIds(request.ids, null, null, true, null);
+        responseCache.invalidate(TodoResponse.class, request.ids);
+        return Response.ok(bulkUpdateResponse(request.ids, updated)).build();
+    }
 
-        return Response.ok(TodoResponse.from(todo)).build();
+    /**
+     * Mark many todos as not completed.
+     * PATCH /api/v1/todos/bulk/uncomplete
+     */
+    @ConnectionLimited
+    @PATCH
+    @Path("/bulk/uncomplete")
+    @Transactional
+    public Response bulkUncompleteTodos(@Valid @NotNull TodoIdsRequest request) {
+        int updated = Todo.updateByIds(request.ids, null, null, false, null);
+        responseCache.invalidate(TodoResponse.class, request.ids);
+        return Response.ok(bulkUpdateResponse(request.ids, updated)).build();
     }
 
     /**
      * Delete a todo by ID.
      * DELETE /api/v1/todos/{id}
      */
+    @ConnectionLimited
     @DELETE
     @Path("/{id}")
     @Transactional
@@ -214,6 +556,8 @@ public class TodoResource {
         }
 
         todo.delete();
+        UserTodoCounts.adjust(todo.user.id, -1, todo.completed ? -1 : 0);
+        responseCache.invalidate(TodoResponse.class, id);
 
         return Response.noContent().build();
     }
@@ -221,11 +565,18 @@ public class TodoResource {
     /**
      * Delete all completed todos for a user.
      * DELETE /api/v1/todos/user/{userId}/completed
+     *
+     * Runs as a single DELETE statement. With {@code chunkSize}, the rows are
+     * instead deleted in bounded chunks, each in its own transaction, so a very
+     * large cleanup never holds row locks for the whole operation.
+     * DELETE /api/v1/todos/user/{userId}/completed?chunkSize=1000
      */
+    @ConnectionLimited
     @DELETE
     @Path("/user/{userId}/completed")
-    @Transactional
-    public Response deleteCompletedTodos(@PathParam("userId") Long userId) {
+    public Response deleteCompletedTodos(
+            @PathParam("userId") Long userId,
+            @QueryParam("chunkSize") @Min(1) Integer chunkSize) {
         User user = User.findById(userId);
         if (user == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -233,10 +584,20 @@ public class TodoResource {
                     .build();
         }
 
-        List<Todo> completedTodos = Todo.findByUserIdAndCompleted(userId, true);
-        long deletedCount = completedTodos.size();
-
-        completedTodos.forEach(Todo::delete);
+        long deletedCount;
+        if (chunkSize == null) {
+            deletedCount = QuarkusTransaction.requiringNew()
+                    .call(() -> Todo.deleteCompletedByUserId(userId));
+        } else {
+            deletedCount = 0;
+            long deleted;
+            do {
+                deleted = QuarkusTransaction.requiringNew()
+                        .call(() -> Todo.deleteCompletedByUserId(userId, chunkSize));
+                deletedCount += deleted;
+            } while (deleted == chunkSize);
+        }
+        responseCache.invalidateOwnedBy(userId);
 
         DeleteResponse response = new DeleteResponse();
         response.message = "Deleted " + deletedCount + " completed todos";
@@ -245,13 +606,124 @@ public class TodoResource {
         return Response.ok(response).build();
     }
 
+    /**
+     * Load one page of todos matching the optional filters, using keyset
+     * pagination when a cursor parameter is present and offset pagination otherwise.
+     * A non-null tag is set as the ETag of the page.
+     */
+    private Response listTodos(Long userId, Boolean completed, int page, int size, String after, Long totalCount,
+                               EntityTag tag) {
+        boolean keyset = after != null;
+        PanacheQuery<Todo> query;
+
+        if (keyset) {
+            PageCursor cursor;
+            try {
+                cursor = after.isEmpty() ? null : PageCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ErrorResponse(e.getMessage()))
+                        .build();
+            }
+            query = cursor == null
+                    ? Todo.findPageAfter(userId, completed, null, null, size)
+                    : Todo.findPageAfter(userId, completed, cursor.createdAt, cursor.id, size);
+        } else {
+            query = Todo.findPage(userId, completed, page, size);
+        }
+
+        // Project in the query so the user name comes from a join, not one lazy load per user
+        List<? extends TodoResponse> response = query.project(TodoResponseProjection.class).list();
+
+        Response.ResponseBuilder builder = Response.ok(response)
+                .header("X-Page-Size", size);
+        if (totalCount != null) {
+            builder.header("X-Total-Count", totalCount);
+        }
+        if (tag != null) {
+            builder.tag(tag);
+        }
+        if (!keyset) {
+            builder.header("X-Page", page);
+        }
+        if (response.size() == size) {
+            TodoResponse last = response.get(response.size() - 1);
+            builder.header("X-Next-Cursor", new PageCursor(last.createdAt, last.id).encode());
+        }
+        return builder.build();
+    }
+
+    private void writeNdjson(OutputStream output, Long userId, Boolean completed) {
+        ObjectWriter writer = objectMapper.writerFor(TodoResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<TodoResponseProjection> todos = Todo.findFiltered(userId, completed)
+                     .project(TodoResponseProjection.class)
+                     .stream();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // One document per line: newline instead of Jackson's default space separator
+            generator.setRootValueSeparator(null);
+
+            Iterator<TodoResponseProjection> iterator = todos.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BulkUpdateResponse bulkUpdateResponse(List<Long> ids, int updated) {
+        BulkUpdateResponse response = new BulkUpdateResponse();
+        response.updatedCount = updated;
+        response.todos = List.copyOf(Todo.findByIdIn(ids).project(TodoResponseProjection.class).list());
+        return response;
+    }
+
+    private static Todo findForWrite(Long id, String ifMatch) {
+        // Lock so no other writer can change the todo between the tag check and the update
+        return ifMatch != null
+                ? Todo.findById(id, LockModeType.PESSIMISTIC_WRITE)
+                : Todo.findById(id);
+    }
+
+    /**
+     * @return a 412 response if an If-Match header is present and does not match the todo, otherwise null
+     */
+    private static Response checkIfMatch(Todo todo, String ifMatch, Request request) {
+        if (ifMatch == null) {
+            return null;
+        }
+        EntityTag tag = EntityTags.of(todo);
+        if (request.evaluatePreconditions(tag) == null) {
+            return null;
+        }
+        return Response.status(Response.Status.PRECONDITION_FAILED)
+                .entity(new ErrorResponse("Todo has been modified: " + todo.id))
+                .tag(tag)
+                .build();
+    }
+
     // Inner classes for responses
-    public static class ErrorResponse {
+    public static class BatchCreateResponse {
+        public int created;
+        public int failed;
+        public List<BatchItemResult> results = new ArrayList<>();
+    }
+
+    public static class BatchItemResult {
+        public int index;
+        public int status;
+        public Long id;
         public String error;
+        public Map<String, String> violations;
+    }
 
-        public ErrorResponse(String error) {
-            this.error = error;
-        }
+    public static class BulkUpdateResponse {
+        public long updatedCount;
+        public List<TodoResponse> todos;
     }
 
     public static class DeleteResponse {
@@ -1,42 +1,105 @@
 package org.swiftbeard.resource;
 
+import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import org.hibernate.exception.ConstraintViolationException;
+import org.swiftbeard.cache.BloomFilter;
+import org.swiftbeard.cache.JsonResponseCache;
+import org.swiftbeard.cache.UserKeyFilters;
+import org.swiftbeard.cache.UserNaturalKeyCache;
+import org.swiftbeard.concurrency.ConnectionLimited;
+import org.swiftbeard.concurrency.ConnectionLimiter;
+import org.swiftbeard.dto.CountMode;
 import org.swiftbeard.dto.UserCreateRequest;
 import org.swiftbeard.dto.UserResponse;
 import org.swiftbeard.dto.UserUpdateRequest;
 import org.swiftbeard.entity.User;
+import org.swiftbeard.entity.UserTodoCounts;
+import org.swiftbeard.exception.ErrorResponses.ErrorResponse;
+import org.swiftbeard.metrics.SqlAccounted;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * REST Resource for User CRUD operations.
  * Implements best practices for RESTful API design.
+ * Runs on virtual threads when quarkus.virtual-threads.enabled=true, with
+ * concurrent database work bounded by the connection pool size.
  */
 @Path("/api/v1/users")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@SqlAccounted
 public class UserResource {
 
+    private static final int MAX_STATS_IDS = 1000;
+
+    @Inject
+    UserNaturalKeyCache naturalKeyCache;
+
+    @Inject
+    UserKeyFilters keyFilters;
+
+    @Inject
+    JsonResponseCache responseCache;
+
+    @Inject
+    ConnectionLimiter connectionLimiter;
+
     /**
      * Get all users with optional pagination.
      * GET /api/v1/users?page=0&size=20
+     *
+     * The {@code search} parameter matches name, username and email substrings,
+     * ranked by relevance and paginated like the unfiltered list.
+     *
+     * The {@code count} parameter selects how X-Total-Count is computed:
+     * exact (default), estimated or none.
      */
+    @ConnectionLimited
     @GET
     public Response getAllUsers(
             @QueryParam("page") @DefaultValue("0") @Min(0) int page,
             @QueryParam("size") @DefaultValue("20") @Min(1) int size,
-            @QueryParam("search") String search) {
+            @QueryParam("search") String search,
+            @QueryParam("count") @DefaultValue("exact") String count) {
+
+        CountMode countMode;
+        try {
+            countMode = CountMode.parse(count);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build();
+        }
 
         List<User> users;
+        boolean searching = search != null && !search.isBlank();
 
-        if (search != null && !search.isBlank()) {
-            users = User.findByNameContaining(search);
+        if (searching) {
+            users = User.search(search, page, size);
         } else {
             users = User.findAll()
                     .page(page, size)
@@ -47,22 +110,67 @@ public class UserResource {
                 .map(UserResponse::from)
                 .collect(Collectors.toList());
 
-        long totalCount = User.count();
+        Long totalCount = switch (countMode) {
+            case EXACT -> searching ? User.countSearch(search) : User.count();
+            // Planner statistics only describe the whole table; search counts stay exact
+            case ESTIMATED -> searching ? User.countSearch(search) : User.estimateCount();
+            case NONE -> null;
+        };
 
-        return Response.ok(response)
-                .header("X-Total-Count", totalCount)
+        Response.ResponseBuilder builder = Response.ok(response)
                 .header("X-Page", page)
-                .header("X-Page-Size", size)
-                .build();
+                .header("X-Page-Size", size);
+        if (totalCount != null) {
+            builder.header("X-Total-Count", totalCount);
+        }
+        return builder.build();
     }
 
     /**
      * Get a user by ID.
      * GET /api/v1/users/{id}
+     *
+     * The response carries a strong ETag. With If-None-Match the tag is first
+     * computed from a version-only query, and a match returns 304 Not Modified
+     * without loading or serializing the user.
+     *
+     * Serialized responses are cached; a hit answers both plain and conditional
+     * requests without touching the database or taking a connection slot.
      */
     @GET
     @Path("/{id}")
-    public Response getUserById(@PathParam("id") Long id) {
+    public Response getUserById(@PathParam("id") Long id,
+                                @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                @Context Request request) throws InterruptedException {
+        JsonResponseCache.Entry cached = responseCache.get(UserResponse.class, id);
+        if (cached != null) {
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(cached.tag());
+            return (notModified != null ? notModified : Response.ok(cached.body()))
+                    .tag(cached.tag())
+                    .build();
+        }
+
+        // Only a cache miss needs a connection
+        connectionLimiter.acquire();
+        try {
+            return loadUser(id, ifNoneMatch, request);
+        } finally {
+            connectionLimiter.release();
+        }
+    }
+
+    private Response loadUser(Long id, String ifNoneMatch, Request request) {
+        // Without a stored version (including an unknown user) the full load below decides
+        Optional<LocalDateTime> version = ifNoneMatch != null ? User.findVersion(id) : Optional.empty();
+        if (version.isPresent()) {
+            EntityTag tag = EntityTags.user(id, version.get());
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+            if (notModified != null) {
+                return notModified.tag(tag).build();
+            }
+        }
+
+        long stamp = responseCache.stamp();
         User user = User.findById(id);
 
         if (user == null) {
@@ -71,17 +179,20 @@ public class UserResource {
                     .build();
         }
 
-        return Response.ok(UserResponse.from(user)).build();
+        EntityTag tag = EntityTags.of(user);
+        byte[] json = responseCache.put(UserResponse.class, id, id, UserResponse.from(user), tag, stamp);
+        return Response.ok(json).tag(tag).build();
     }
 
     /**
      * Get a user by username.
      * GET /api/v1/users/username/{username}
      */
+    @ConnectionLimited
     @GET
     @Path("/username/{username}")
     public Response getUserByUsername(@PathParam("username") String username) {
-        User user = User.findByUsername(username);
+        User user = naturalKeyCache.findByUsername(username);
 
         if (user == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -96,18 +207,19 @@ public class UserResource {
      * Create a new user.
      * POST /api/v1/users
      */
+    @ConnectionLimited
     @POST
     @Transactional
     public Response createUser(@Valid UserCreateRequest request) {
         // Check if username already exists
-        if (User.findByUsername(request.username) != null) {
+        if (findIfMaybePresent(keyFilters.usernames(), request.username, naturalKeyCache::findByUsername) != null) {
             return Response.status(Response.Status.CONFLICT)
                     .entity(new ErrorResponse("Username already exists: " + request.username))
                     .build();
         }
 
         // Check if email already exists
-        if (User.findByEmail(request.email) != null) {
+        if (findIfMaybePresent(keyFilters.emails(), request.email, naturalKeyCache::findByEmail) != null) {
             return Response.status(Response.Status.CONFLICT)
                     .entity(new ErrorResponse("Email already exists: " + request.email))
                     .build();
@@ -118,22 +230,39 @@ public class UserResource {
         user.email = request.email;
         user.name = request.name;
 
-        user.persist();
+        // Flush now so a duplicate the filters could not see surfaces as a unique-constraint conflict
+        Response conflict = flushOrConflict(user);
+        if (conflict != null) {
+            return conflict;
+        }
+        UserTodoCounts.createFor(user.id);
+        keyFilters.add(user.username, user.email);
+        naturalKeyCache.put(user);
 
         return Response.status(Response.Status.CREATED)
                 .entity(UserResponse.from(user))
+                .tag(EntityTags.of(user))
                 .build();
     }
 
     /**
      * Update an existing user.
      * PUT /api/v1/users/{id}
+     *
+     * With If-Match the user row is locked and the update only applies if the
+     * tag still matches; otherwise 412 Precondition Failed is returned.
      */
+    @ConnectionLimited
     @PUT
     @Path("/{id}")
     @Transactional
-    public Response updateUser(@PathParam("id") Long id, @Valid UserUpdateRequest request) {
-        User user = User.findById(id);
+    public Response updateUser(@PathParam("id") Long id, @Valid UserUpdateRequest request,
+                               @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                               @Context Request httpRequest) {
+        // Lock so no other writer can change the user between the tag check and the update
+        User user = ifMatch != null
+                ? User.findById(id, LockModeType.PESSIMISTIC_WRITE)
+                : User.findById(id);
 
         if (user == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -141,63 +270,149 @@ public class UserResource {
                     .build();
         }
 
+        if (ifMatch != null && httpRequest.evaluatePreconditions(EntityTags.of(user)) != null) {
+            return Response.status(Response.Status.PRECONDITION_FAILED)
+                    .entity(new ErrorResponse("User has been modified: " + id))
+                    .tag(EntityTags.of(user))
+                    .build();
+        }
+
         // Check if username is being changed and if it already exists
         if (request.username != null && !request.username.equals(user.username)) {
-            User existingUser = User.findByUsername(request.username);
+            User existingUser = findIfMaybePresent(
+                    keyFilters.usernames(), request.username, naturalKeyCache::findByUsername);
             if (existingUser != null && !existingUser.id.equals(id)) {
                 return Response.status(Response.Status.CONFLICT)
                         .entity(new ErrorResponse("Username already exists: " + request.username))
                         .build();
             }
+            naturalKeyCache.invalidate(user.username, null);
             user.username = request.username;
         }
 
         // Check if email is being changed and if it already exists
         if (request.email != null && !request.email.equals(user.email)) {
-            User existingUser = User.findByEmail(request.email);
+            User existingUser = findIfMaybePresent(
+                    keyFilters.emails(), request.email, naturalKeyCache::findByEmail);
             if (existingUser != null && !existingUser.id.equals(id)) {
                 return Response.status(Response.Status.CONFLICT)
                         .entity(new ErrorResponse("Email already exists: " + request.email))
                         .build();
             }
+            naturalKeyCache.invalidate(null, user.email);
             user.email = request.email;
         }
 
         // Update name if provided
-        if (request.name != null) {
+        boolean renamed = request.name != null && !request.name.equals(user.name);
+        if (renamed) {
             user.name = request.name;
         }
 
-        user.persist();
+        Response conflict = flushOrConflict(user);
+        if (conflict != null) {
+            return conflict;
+        }
+        keyFilters.add(user.username, user.email);
+        naturalKeyCache.put(user);
+        if (renamed) {
+            // The user's todo lists include the name, so their version must change too
+            UserTodoCounts.adjust(id, 0, 0);
+        }
+        // Cached todos carry the user's updatedAt in their ETags
+        responseCache.invalidateOwnedBy(id);
 
-        return Response.ok(UserResponse.from(user)).build();
+        return Response.ok(UserResponse.from(user)).tag(EntityTags.of(user)).build();
     }
 
     /**
      * Delete a user by ID.
      * DELETE /api/v1/users/{id}
      */
+    @ConnectionLimited
     @DELETE
     @Path("/{id}")
     @Transactional
     public Response deleteUser(@PathParam("id") Long id) {
-        User user = User.findById(id);
-
-        if (user == null) {
+        // Bulk statements: memory and time stay flat however many todos the user has
+        if (!User.deleteWithTodos(id)) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity(new ErrorResponse("User not found with id: " + id))
                     .build();
         }
-
-        user.delete();
+        naturalKeyCache.invalidate(id);
+        responseCache.invalidateOwnedBy(id);
 
         return Response.noContent().build();
     }
 
+    /**
+     * Get statistics for many users in one request.
+     * GET /api/v1/users/stats?ids=1,2,3
+     * GET /api/v1/users/stats?page=0&size=20
+     *
+     * With {@code ids} (comma-separated or repeated) returns stats for those users,
+     * skipping unknown IDs; without it pages through all users ordered by ID.
+     * The number of queries does not grow with the number of users.
+     */
+    @ConnectionLimited
+    @GET
+    @Path("/stats")
+    public Response getUsersStats(
+            @QueryParam("ids") List<String> ids,
+            @QueryParam("page") @DefaultValue("0") @Min(0) int page,
+            @QueryParam("size") @DefaultValue("20") @Min(1) int size) {
+
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (String value : ids) {
+            for (String part : value.split(",")) {
+                if (part.isBlank()) {
+                    continue;
+                }
+                try {
+                    userIds.add(Long.valueOf(part.trim()));
+                } catch (NumberFormatException e) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                            .entity(new ErrorResponse("Invalid user id: " + part.trim()))
+                            .build();
+                }
+            }
+        }
+        if (userIds.size() > MAX_STATS_IDS) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("At most " + MAX_STATS_IDS + " user ids are allowed"))
+                    .build();
+        }
+
+        boolean paged = userIds.isEmpty();
+        List<User> users = paged
+                ? User.findAll(Sort.by("id")).page(page, size).list()
+                : User.list("id in ?1", Sort.by("id"), userIds);
+
+        Map<Long, UserTodoCounts> counts = UserTodoCounts.findOrCountAll(
+                users.stream().map(user -> user.id).collect(Collectors.toList()));
+
+        List<UserStats> response = users.stream()
+                .map(user -> UserStats.from(user, counts.get(user.id)))
+                .collect(Collectors.toList());
+
+        Response.ResponseBuilder builder = Response.ok(response);
+        if (paged) {
+            builder.header("X-Total-Count", User.count())
+                    .header("X-Page", page)
+                    .header("X-Page-Size", size);
+        }
+        return builder.build();
+    }
+
     /**
      * Get user statistics.
      * GET /api/v1/users/{id}/stats
+     *
+     * Totals come from the write-maintained per-user counters, so this is a
+     * primary-key read rather than a COUNT over the user's todos.
      */
+    @ConnectionLimited
     @GET
     @Path("/{id}/stats")
     public Response getUserStats(@PathParam("id") Long id) {
@@ -209,34 +424,79 @@ public class UserResource {
                     .build();
         }
 
-        long totalTodos = org.swiftbeard.entity.Todo.countByUserId(id);
-        long completedTodos = org.swiftbeard.entity.Todo.countByUserIdAndCompleted(id, true);
-        long pendingTodos = org.swiftbeard.entity.Todo.countByUserIdAndCompleted(id, false);
-
-        UserStats stats = new UserStats();
-        stats.userId = id;
-        stats.username = user.username;
-        stats.totalTodos = totalTodos;
-        stats.completedTodos = completedTodos;
-        stats.pendingTodos = pendingTodos;
+        return Response.ok(UserStats.from(user, UserTodoCounts.findOrCount(id))).build();
+    }
 
-        return Response.ok(stats).build();
+    /**
+     * Look up a user by natural key, skipping the query when the filter rules the key out.
+     */
+    private static User findIfMaybePresent(BloomFilter filter, String key, Function<String, User> lookup) {
+        if (!filter.mightContain(key)) {
+            return null;
+        }
+        User user = lookup.apply(key);
+        if (user == null) {
+            filter.recordFalsePositive();
+        }
+        return user;
     }
 
-    // Inner classes for responses
-    public static class ErrorResponse {
-        public String error;
+    /**
+     * Flush the user, answering a violated username or email unique constraint with the
+     * same 409 as the pre-checks; the constraint catches keys taken concurrently or missed
+     * by the key filters. Any other failure propagates.
+     *
+     * @return the conflict response, or null if the flush succeeded
+     */
+    private static Response flushOrConflict(User user) {
+        try {
+            user.persistAndFlush();
+            return null;
+        } catch (PersistenceException e) {
+            List<String> constraint = violatedConstraint(e);
+            if (constraint.contains(User.USERNAME_UNIQUE_CONSTRAINT)) {
+                return Response.status(Response.Status.CONFLICT)
+                        .entity(new ErrorResponse("Username already exists: " + user.username))
+                        .build();
+            }
+            if (constraint.contains(User.EMAIL_UNIQUE_CONSTRAINT)) {
+                return Response.status(Response.Status.CONFLICT)
+                        .entity(new ErrorResponse("Email already exists: " + user.email))
+                        .build();
+            }
+            throw e;
+        }
+    }
 
-        public ErrorResponse(String error) {
-            this.error = error;
+    /**
+     * Identifiers in the name of the violated constraint, lower-cased. Databases may qualify
+     * or decorate the name (H2 reports "PUBLIC.USERS_USERNAME_KEY INDEX PUBLIC...._INDEX_4").
+     */
+    private static List<String> violatedConstraint(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return List.of(violation.getConstraintName().toLowerCase(Locale.ROOT).split("[^a-z0-9_]+"));
+            }
         }
+        return List.of();
     }
 
+    // Inner classes for responses
     public static class UserStats {
         public Long userId;
         public String username;
         public long totalTodos;
         public long completedTodos;
         public long pendingTodos;
+
+        static UserStats from(User user, UserTodoCounts counts) {
+            UserStats stats = new UserStats();
+            stats.userId = user.id;
+            stats.username = user.username;
+            stats.totalTodos = counts.totalTodos;
+            stats.completedTodos = counts.completedTodos;
+            stats.pendingTodos = counts.pendingTodos();
+            return stats;
+        }
     }
 }
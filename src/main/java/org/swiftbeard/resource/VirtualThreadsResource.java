@@ -0,0 +1,83 @@
+package org.swiftbeard.resource;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.swiftbeard.concurrency.ConnectionLimiter;
+import org.swiftbeard.concurrency.PinningMonitor;
+
+import java.util.Map;
+
+/**
+ * REST Resource exposing virtual-thread execution diagnostics.
+ * Reports the database concurrency limit and virtual threads pinned to carriers.
+ */
+@Path("/api/v1/diagnostics/virtual-threads")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class VirtualThreadsResource {
+
+    @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "true")
+    boolean virtualThreadsEnabled;
+
+    @Inject
+    ConnectionLimiter connectionLimit;
+
+    @Inject
+    PinningMonitor pinningMonitor;
+
+    /**
+     * Get virtual-thread diagnostics.
+     * GET /api/v1/diagnostics/virtual-threads
+     */
+    @GET
+    public Response getDiagnostics() {
+        VirtualThreadDiagnostics response = new VirtualThreadDiagnostics();
+        response.virtualThreadsEnabled = virtualThreadsEnabled;
+        response.currentThreadVirtual = Thread.currentThread().isVirtual();
+
+        response.connectionLimit = new ConnectionLimitStats();
+        response.connectionLimit.limit = connectionLimit.limit();
+        response.connectionLimit.inFlight = connectionLimit.inFlight();
+        response.connectionLimit.waiting = connectionLimit.waiting();
+        response.connectionLimit.rejectedCount = connectionLimit.rejectedCount();
+
+        response.pinning = new PinningStats();
+        response.pinning.monitorRunning = pinningMonitor.isRunning();
+        response.pinning.thresholdMillis = pinningMonitor.threshold().toMillis();
+        response.pinning.pinnedEventCount = pinningMonitor.pinnedEventCount();
+        response.pinning.pinnedMillis = pinningMonitor.pinnedMillis();
+        response.pinning.sites = pinningMonitor.pinnedEventsBySite();
+
+        return Response.ok(response).build();
+    }
+
+    // Inner classes for responses
+    public static class VirtualThreadDiagnostics {
+        public boolean virtualThreadsEnabled;
+        // Whether this diagnostics request itself ran on a virtual thread
+        public boolean currentThreadVirtual;
+        public ConnectionLimitStats connectionLimit;
+        public PinningStats pinning;
+    }
+
+    public static class ConnectionLimitStats {
+        public int limit;
+        public int inFlight;
+        public int waiting;
+        public long rejectedCount;
+    }
+
+    public static class PinningStats {
+        public boolean monitorRunning;
+        public long thresholdMillis;
+        public long pinnedEventCount;
+        public long pinnedMillis;
+        public Map<String, Long> sites;
+    }
+}
@@ -9,17 +9,27 @@ INSERT INTO users (id, username, email, name, created_at, updated_at) VALUES
 
 -- Insert sample todos
 INSERT INTO todos (id, title, description, completed, user_id, due_date, created_at, updated_at) VALUES
-(1, 'Complete project documentation', 'Write comprehensive documentation for the API', false, 1, CURRENT_TIMESTAMP + INTERVAL '7 days', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(2, 'Review pull requests', 'Review and approve pending pull requests', false, 1, CURRENT_TIMESTAMP + INTERVAL '2 days', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(3, 'Deploy to production', 'Deploy the latest version to production environment', false, 1, CURRENT_TIMESTAMP + INTERVAL '14 days', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(4, 'Setup CI/CD pipeline', 'Configure automated testing and deployment', true, 1, CURRENT_TIMESTAMP - INTERVAL '1 days', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(5, 'Write unit tests', 'Add comprehensive unit tests for all endpoints', false, 2, CURRENT_TIMESTAMP + INTERVAL '5 days', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(6, 'Update dependencies', 'Update all project dependencies to latest versions', true, 2, CURRENT_TIMESTAMP - INTERVAL '2 days', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(7, 'Fix security vulnerabilities', 'Address security issues reported in scan', false, 2, CURRENT_TIMESTAMP + INTERVAL '1 days', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(8, 'Optimize database queries', 'Improve query performance for large datasets', false, 3, CURRENT_TIMESTAMP + INTERVAL '10 days', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(9, 'Setup monitoring', 'Configure application monitoring and alerting', false, 3, CURRENT_TIMESTAMP + INTERVAL '7 days', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(10, 'Code refactoring', 'Refactor legacy code to improve maintainability', true, 3, CURRENT_TIMESTAMP - INTERVAL '3 days', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+(1, 'Complete project documentation', 'Write comprehensive documentation for the API', false, 1, CURRENT_TIMESTAMP + INTERVAL '7' DAY, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(2, 'Review pull requests', 'Review and approve pending pull requests', false, 1, CURRENT_TIMESTAMP + INTERVAL '2' DAY, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(3, 'Deploy to production', 'Deploy the latest version to production environment', false, 1, CURRENT_TIMESTAMP + INTERVAL '14' DAY, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(4, 'Setup CI/CD pipeline', 'Configure automated testing and deployment', true, 1, CURRENT_TIMESTAMP - INTERVAL '1' DAY, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(5, 'Write unit tests', 'Add comprehensive unit tests for all endpoints', false, 2, CURRENT_TIMESTAMP + INTERVAL '5' DAY, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(6, 'Update dependencies', 'Update all project dependencies to latest versions', true, 2, CURRENT_TIMESTAMP - INTERVAL '2' DAY, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(7, 'Fix security vulnerabilities', 'Address security issues reported in scan', false, 2, CURRENT_TIMESTAMP + INTERVAL '1' DAY, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(8, 'Optimize database queries', 'Improve query performance for large datasets', false, 3, CURRENT_TIMESTAMP + INTERVAL '10' DAY, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(9, 'Setup monitoring', 'Configure application monitoring and alerting', false, 3, CURRENT_TIMESTAMP + INTERVAL '7' DAY, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(10, 'Code refactoring', 'Refactor legacy code to improve maintainability', true, 3, CURRENT_TIMESTAMP - INTERVAL '3' DAY, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
--- Reset sequences to continue from the last inserted ID
-ALTER SEQUENCE user_seq RESTART WITH 4;
-ALTER SEQUENCE todo_seq RESTART WITH 11;
+-- Seed the per-user todo counters
+INSERT INTO user_todo_counts (user_id, total_todos, completed_todos)
+SELECT u.id,
+       (SELECT COUNT(*) FROM todos t WHERE t.user_id = u.id),
+       (SELECT COUNT(*) FROM todos t WHERE t.user_id = u.id AND t.completed = true)
+FROM users u;
+
+-- Reset sequences to continue after the last inserted ID.
+-- Hibernate's pooled optimizer treats the sequence value as the upper bound of a block,
+-- so restart at last ID + allocation size (50 for users, 500 for todos) to hand out
+-- IDs from last ID + 1.
+ALTER SEQUENCE users_SEQ RESTART WITH 53;
+ALTER SEQUENCE todos_SEQ RESTART WITH 510;
@@ -0,0 +1,70 @@
+package org.swiftbeard.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilter.
+ * Tests membership answers and false-positive accounting.
+ */
+class BloomFilterTest {
+
+    @Test
+    void testAddedValuesAreAlwaysPresent() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.add("user" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        int positives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("other" + i + "@example.com")) {
+                positives++;
+            }
+        }
+
+        assertTrue(positives < 300, "Too many false positives: " + positives);
+    }
+
+    @Test
+    void testObservedFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        filter.add("alice");
+
+        assertTrue(filter.mightContain("alice"));
+        filter.recordFalsePositive();
+        assertFalse(filter.mightContain("bob"));
+
+        // One false positive out of two checks of absent values
+        assertEquals(2, filter.checkCount());
+        assertEquals(1, filter.falsePositiveCount());
+        assertEquals(0.5, filter.falsePositiveRate(), 1e-9);
+    }
+
+    @Test
+    void testEmptyFilterReportsZeroRate() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain("anyone"));
+        assertEquals(0.0, filter.falsePositiveRate());
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.5));
+    }
+}
@@ -0,0 +1,76 @@
+package org.swiftbeard.concurrency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConnectionLimiter.
+ * Tests admission, release and rejection accounting.
+ */
+class ConnectionLimiterTest {
+
+    private ConnectionLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new ConnectionLimiter();
+        limiter.limit = 2;
+        limiter.acquireTimeout = Duration.ofMillis(50);
+        limiter.init();
+    }
+
+    @Test
+    void testAdmitsUpToLimit() throws InterruptedException {
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+
+        assertEquals(2, limiter.inFlight());
+        assertEquals(0, limiter.rejectedCount());
+    }
+
+    @Test
+    void testRejectsWhenSaturated() throws InterruptedException {
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.rejectedCount());
+    }
+
+    @Test
+    void testReleaseFreesSlot() throws InterruptedException {
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release();
+
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.inFlight());
+    }
+
+    @Test
+    void testWaiterIsAdmittedWhenSlotFreesUp() throws Exception {
+        limiter.acquireTimeout = Duration.ofSeconds(5);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                assertTrue(limiter.tryAcquire());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        while (limiter.waiting() == 0) {
+            Thread.sleep(1);
+        }
+        limiter.release();
+        waiter.join();
+
+        assertEquals(2, limiter.inFlight());
+        assertEquals(0, limiter.rejectedCount());
+    }
+}
@@ -8,13 +8,15 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit tests for Todo DTO validation.
- * Tests validation annotations on TodoCreateRequest and TodoUpdateRequest.
+ * Tests validation annotations on TodoCreateRequest, TodoUpdateRequest and the bulk request DTOs.
  */
 class TodoDtoValidationTest {
 
@@ -316,4 +318,50 @@ class TodoDtoValidationTest {
 
         assertTrue(violations.isEmpty());
     }
+
+    // TodoBulkUpdateRequest and TodoIdsRequest Tests
+
+    @Test
+    void testTodoBulkUpdateRequestValidData() {
+        TodoBulkUpdateRequest request = new TodoBulkUpdateRequest();
+        request.ids = List.of(1L, 2L);
+        request.completed = true;
+
+        Set<ConstraintViolation<TodoBulkUpdateRequest>> violations = validator.validate(request);
+
+        assertTrue(violations.isEmpty());
+    }
+
+    @Test
+    void testTodoBulkUpdateRequestEmptyIdsShouldFail() {
+        TodoBulkUpdateRequest request = new TodoBulkUpdateRequest();
+        request.ids = List.of();
+        request.completed = true;
+
+        Set<ConstraintViolation<TodoBulkUpdateRequest>> violations = validator.validate(request);
+
+        assertEquals(1, violations.size());
+        assertEquals("At least one todo ID is required", violations.iterator().next().getMessage());
+    }
+
+    @Test
+    void testTodoBulkUpdateRequestTitleTooLongShouldFail() {
+        TodoBulkUpdateRequest request = new TodoBulkUpdateRequest();
+        request.ids = List.of(1L);
+        request.title = "a".repeat(201);
+
+        Set<ConstraintViolation<TodoBulkUpdateRequest>> violations = validator.validate(request);
+
+        assertEquals(1, violations.size());
+    }
+
+    @Test
+    void testTodoIdsRequestTooManyIdsShouldFail() {
+        TodoIdsRequest request = new TodoIdsRequest();
+        request.ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        Set<ConstraintViolation<TodoIdsRequest>> violations = validator.validate(request);
+
+        assertEquals(1, violations.size());
+    }
 }
@@ -1,5 +1,6 @@
 package org.swiftbeard.entity;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
@@ -25,15 +26,16 @@ class TodoEntityTest {
     private static Long testUserId;
 
     @BeforeAll
-    @Transactional
     static void setupTestUser() {
         // Create a test user for all tests
-        User testUser = new User();
-        testUser.username = "todoentitytest" + System.currentTimeMillis();
-        testUser.email = "todoentity" + System.currentTimeMillis() + "@example.com";
-        testUser.name = "Todo Entity Test User";
-        testUser.persist();
-        testUserId = testUser.id;
+        QuarkusTransaction.requiringNew().run(() -> {
+            User testUser = new User();
+            testUser.username = "todoentitytest" + System.currentTimeMillis();
+            testUser.email = "todoentity" + System.currentTimeMillis() + "@example.com";
+            testUser.name = "Todo Entity Test User";
+            testUser.persist();
+            testUserId = testUser.id;
+        });
     }
 
     @Test
@@ -350,4 +352,60 @@ class TodoEntityTest {
         assertTrue(completedCount >= 1);
         assertTrue(pendingCount >= 2);
     }
+
+    @Test
+    @Order(19)
+    void testDeleteCompletedChunkKeepsTodoReopenedAfterSelect() {
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            User user = new User();
+            user.username = "chunkdelete" + System.currentTimeMillis();
+            user.email = "chunkdelete" + System.currentTimeMillis() + "@example.com";
+            user.name = "Chunk Delete Test User";
+            user.persist();
+            UserTodoCounts.createFor(user.id);
+
+            Long[] todoIds = new Long[3];
+            for (int i = 0; i < todoIds.length; i++) {
+                Todo todo = new Todo();
+                todo.title = "Chunk Delete Todo " + i;
+                todo.completed = true;
+                todo.user = user;
+                todo.persist();
+                todoIds[i] = todo.id;
+            }
+            UserTodoCounts.adjust(user.id, todoIds.length, todoIds.length);
+            return new Long[] {user.id, todoIds[0], todoIds[1], todoIds[2]};
+        });
+        Long userId = ids[0];
+        Long reopenedId = ids[2];
+
+        long deleted = QuarkusTransaction.requiringNew().call(() -> {
+            List<Long> chunk = Todo.findCompletedIds(userId, 10);
+            assertEquals(3, chunk.size());
+
+            // Reopened by another transaction after the chunk was read
+            QuarkusTransaction.requiringNew().run(() -> {
+                UserTodoCounts.adjustForCompletion(List.of(reopenedId), false);
+                Todo.update("completed = false where id = ?1", reopenedId);
+            });
+
+            return Todo.deleteCompleted(userId, chunk);
+        });
+
+        assertEquals(2, deleted);
+        QuarkusTransaction.requiringNew().run(() -> {
+            Todo reopened = Todo.findById(reopenedId);
+            assertNotNull(reopened);
+            assertFalse(reopened.completed);
+
+            UserTodoCounts counts = UserTodoCounts.findById(userId);
+            assertEquals(1, counts.totalTodos);
+            assertEquals(0, counts.completedTodos);
+        });
+        QuarkusTransaction.requiringNew().run(() -> {
+            Todo.delete("user.id", userId);
+            UserTodoCounts.deleteById(userId);
+            User.deleteById(userId);
+        });
+    }
 }
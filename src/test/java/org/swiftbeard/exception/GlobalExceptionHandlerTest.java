@@ -3,6 +3,7 @@ package org.swiftbeard.exception;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Path;
+import jakarta.ws.rs.NotAllowedException;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,14 +38,106 @@ class GlobalExceptionHandlerTest {
 
         assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
 
-        GlobalExceptionHandler.ErrorResponse error =
-            (GlobalExceptionHandler.ErrorResponse) response.getEntity();
+        ErrorResponses.ErrorResponse error =
+            (ErrorResponses.ErrorResponse) response.getEntity();
 
         assertNotNull(error);
         assertEquals("Internal server error", error.error);
         assertEquals("Test error message", error.message);
     }
 
+    @Test
+    void testWebApplicationExceptionKeepsItsStatus() {
+        Response response = handler.toResponse(new NotAllowedException("GET"));
+
+        assertEquals(Response.Status.METHOD_NOT_ALLOWED.getStatusCode(), response.getStatus());
+    }
+
+    @Test
+    void testHandleDatabaseConstraintViolation() {
+        // Known unique keys are answered by the resources; anything reaching the handler is unexpected
+        Exception exception = new RuntimeException("Flush failed",
+            new org.hibernate.exception.ConstraintViolationException(
+                "duplicate key", new java.sql.SQLException("duplicate key"), "users_username_key"));
+
+        Response response = handler.toResponse(exception);
+
+        assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
+
+        ErrorResponses.ErrorResponse error =
+            (ErrorResponses.ErrorResponse) response.getEntity();
+
+        assertNotNull(error);
+        assertEquals("Internal server error", error.error);
+    }
+
+    @Test
+    void testHandleConnectionLimitExceeded() {
+        Exception exception = new ConnectionLimitExceededException(20, java.time.Duration.ofSeconds(5));
+
+        Response response = handler.toResponse(exception);
+
+        assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.getStatus());
+        assertEquals(5L, response.getHeaders().getFirst("Retry-After"));
+
+        ErrorResponses.ErrorResponse error =
+            (ErrorResponses.ErrorResponse) response.getEntity();
+
+        assertNotNull(error);
+        assertEquals("Service unavailable", error.error);
+    }
+
+    @Test
+    void testHandleConnectionAcquisitionTimeout() {
+        // As raised by Hibernate for Agroal's timeout: a plain SQLException without SQLState
+        Exception exception = new RuntimeException(new org.hibernate.exception.GenericJDBCException(
+            "Unable to acquire JDBC Connection", new java.sql.SQLException("Sorry, acquisition timeout!")));
+
+        Response response = handler.toResponse(exception);
+
+        assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.getStatus());
+        assertEquals(1L, response.getHeaders().getFirst("Retry-After"));
+
+        ErrorResponses.ErrorResponse error =
+            (ErrorResponses.ErrorResponse) response.getEntity();
+
+        assertNotNull(error);
+        assertEquals("Service unavailable", error.error);
+        assertEquals("No database connection available", error.message);
+    }
+
+    @Test
+    void testHandleTransientConnectionException() {
+        Exception exception = new RuntimeException(
+            new java.sql.SQLTransientConnectionException("Connection is not available, request timed out"));
+
+        Response response = handler.toResponse(exception);
+
+        assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.getStatus());
+        assertEquals(1L, response.getHeaders().getFirst("Retry-After"));
+    }
+
+    @Test
+    void testHandleConnectionExceptionSqlState() {
+        Exception exception = new org.hibernate.exception.GenericJDBCException(
+            "Unable to acquire JDBC Connection", new java.sql.SQLException("Connection refused", "08001"));
+
+        Response response = handler.toResponse(exception);
+
+        assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.getStatus());
+    }
+
+    @Test
+    void testTimeoutMessageWithSqlStateIsNotAcquisitionTimeout() {
+        // Only an untyped SQLException is matched by message
+        Exception exception = new RuntimeException(
+            new java.sql.SQLException("canceling statement due to lock acquisition timeout", "55P03"));
+
+        Response response = handler.toResponse(exception);
+
+        assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
+    }
+
     @Test
     void testHandleNullPointerException() {
         Exception exception = new NullPointerException("Null value encountered");
@@ -53,8 +146,8 @@ class GlobalExceptionHandlerTest {
 
         assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
 
-        GlobalExceptionHandler.ErrorResponse error =
-            (GlobalExceptionHandler.ErrorResponse) response.getEntity();
+        ErrorResponses.ErrorResponse error =
+            (ErrorResponses.ErrorResponse) response.getEntity();
 
         assertNotNull(error);
         assertEquals("Internal server error", error.error);
@@ -78,8 +171,8 @@ class GlobalExceptionHandlerTest {
 
         assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
 
-        GlobalExceptionHandler.ValidationErrorResponse error =
-            (GlobalExceptionHandler.ValidationErrorResponse) response.getEntity();
+        ErrorResponses.ValidationErrorResponse error =
+            (ErrorResponses.ValidationErrorResponse) response.getEntity();
 
         assertNotNull(error);
         assertEquals("Validation failed", error.error);
@@ -103,8 +196,8 @@ class GlobalExceptionHandlerTest {
 
         assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
 
-        GlobalExceptionHandler.ValidationErrorResponse error =
-            (GlobalExceptionHandler.ValidationErrorResponse) response.getEntity();
+        ErrorResponses.ValidationErrorResponse error =
+            (ErrorResponses.ValidationErrorResponse) response.getEntity();
 
         assertNotNull(error);
         assertEquals(1, error.violations.size());
@@ -124,8 +217,8 @@ class GlobalExceptionHandlerTest {
 
         Response response = handler.toResponse(exception);
 
-        GlobalExceptionHandler.ValidationErrorResponse error =
-            (GlobalExceptionHandler.ValidationErrorResponse) response.getEntity();
+        ErrorResponses.ValidationErrorResponse error =
+            (ErrorResponses.ValidationErrorResponse) response.getEntity();
 
         assertNotNull(error);
         // Should extract the last part of the property path
@@ -147,8 +240,8 @@ class GlobalExceptionHandlerTest {
 
         Response response = handler.toResponse(exception);
 
-        GlobalExceptionHandler.ValidationErrorResponse error =
-            (GlobalExceptionHandler.ValidationErrorResponse) response.getEntity();
+        ErrorResponses.ValidationErrorResponse error =
+            (ErrorResponses.ValidationErrorResponse) response.getEntity();
 
         assertNotNull(error);
         assertTrue(error.violations.containsKey("password"));
@@ -161,7 +254,7 @@ class GlobalExceptionHandlerTest {
 
     @Test
     void testErrorResponseStructure() {
-        GlobalExceptionHandler.ErrorResponse error = new GlobalExceptionHandler.ErrorResponse();
+        ErrorResponses.ErrorResponse error = new ErrorResponses.ErrorResponse();
         error.error = "Test Error";
         error.message = "Test Message";
 
@@ -171,8 +264,8 @@ class GlobalExceptionHandlerTest {
 
     @Test
     void testValidationErrorResponseStructure() {
-        GlobalExceptionHandler.ValidationErrorResponse error =
-            new GlobalExceptionHandler.ValidationErrorResponse();
+        ErrorResponses.ValidationErrorResponse error =
+            new ErrorResponses.ValidationErrorResponse();
         error.error = "Validation failed";
         error.violations = Map.of(
             "field1", "Error 1",
@@ -194,8 +287,8 @@ class GlobalExceptionHandlerTest {
 
         assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
 
-        GlobalExceptionHandler.ErrorResponse error =
-            (GlobalExceptionHandler.ErrorResponse) response.getEntity();
+        ErrorResponses.ErrorResponse error =
+            (ErrorResponses.ErrorResponse) response.getEntity();
 
         assertNotNull(error);
         assertEquals("Internal server error", error.error);
@@ -212,8 +305,8 @@ class GlobalExceptionHandlerTest {
 
         assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
 
-        GlobalExceptionHandler.ValidationErrorResponse error =
-            (GlobalExceptionHandler.ValidationErrorResponse) response.getEntity();
+        ErrorResponses.ValidationErrorResponse error =
+            (ErrorResponses.ValidationErrorResponse) response.getEntity();
 
         assertNotNull(error);
         assertEquals("Validation failed", error.error);
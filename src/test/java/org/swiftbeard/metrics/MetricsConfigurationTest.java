@@ -0,0 +1,70 @@
+package org.swiftbeard.metrics;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+
+/**
+ * Tests for the Prometheus metrics surface at /q/metrics.
+ */
+@QuarkusTest
+class MetricsConfigurationTest {
+
+    @Test
+    void testEndpointLatencyHistograms() {
+        given().when().get("/api/v1/users/1").then().statusCode(200);
+
+        given()
+            .when()
+            .get("/q/metrics")
+            .then()
+            .statusCode(200)
+            .body(containsString("http_server_requests_seconds_bucket{"))
+            .body(containsString("uri=\"/api/v1/users/{id}\""))
+            .body(containsString("le=\"+Inf\""));
+    }
+
+    @Test
+    void testHibernateStatistics() {
+        given().when().get("/api/v1/todos").then().statusCode(200);
+
+        given()
+            .when()
+            .get("/q/metrics")
+            .then()
+            .statusCode(200)
+            .body(containsString("hibernate_query_executions_total"))
+            .body(containsString("hibernate_entities_loads_total"))
+            .body(containsString("hibernate_second_level_cache_requests_total"))
+            .body(containsString("hibernate_flushes_total"));
+    }
+
+    @Test
+    void testConnectionPoolMetrics() {
+        given()
+            .when()
+            .get("/q/metrics")
+            .then()
+            .statusCode(200)
+            .body(containsString("agroal_active_count{datasource=\"default\"}"))
+            .body(containsString("agroal_available_count{datasource=\"default\"}"))
+            .body(containsString("agroal_blocking_time_max_milliseconds"))
+            .body(containsString("agroal_acquisition_timeouts_total{datasource=\"default\"}"))
+            .body(containsString("database_concurrency_limit 20.0"))
+            .body(containsString("database_concurrency_rejected_total"));
+    }
+
+    @Test
+    void testKeyFilterMetrics() {
+        given()
+            .when()
+            .get("/q/metrics")
+            .then()
+            .statusCode(200)
+            .body(containsString("users_key_filter_false_positive_rate{filter=\"username\"}"))
+            .body(containsString("users_key_filter_false_positive_rate{filter=\"email\"}"))
+            .body(containsString("users_key_filter_expected_false_positive_rate{filter=\"username\"} 0.01"));
+    }
+}
@@ -0,0 +1,75 @@
+package org.swiftbeard.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RequestSqlStats statement shapes and repeat detection.
+ */
+class RequestSqlStatsTest {
+
+    @Test
+    void testShapeIgnoresLiteralsAndWhitespace() {
+        assertEquals(
+            RequestSqlStats.shapeOf("select u.id from users u where u.id = 42 and u.name = 'O''Brien'"),
+            RequestSqlStats.shapeOf("SELECT u.id  FROM users u\n WHERE u.id = 7 AND u.name = 'Jane'"));
+    }
+
+    @Test
+    void testShapeCollapsesInLists() {
+        assertEquals(
+            "select t.id from todos t where t.user_id in (?)",
+            RequestSqlStats.shapeOf("select t.id from todos t where t.user_id in (?, ?, ?)"));
+    }
+
+    @Test
+    void testShapeKeepsIdentifiersWithDigits() {
+        assertEquals(
+            "select t1_0.id from todos t1_0 where t1_0.id=?",
+            RequestSqlStats.shapeOf("select t1_0.id from todos t1_0 where t1_0.id=?"));
+    }
+
+    @Test
+    void testMostRepeatedSelect() {
+        RequestSqlStats stats = new RequestSqlStats();
+        stats.recordStatement("select t.id from todos t where t.user_id=?");
+        for (int i = 0; i < 6; i++) {
+            stats.recordStatement("select u.name from users u where u.id=?");
+        }
+        for (int i = 0; i < 10; i++) {
+            stats.recordStatement("insert into todos (id, title) values (?, ?)");
+        }
+
+        Map.Entry<String, Integer> mostRepeated = stats.mostRepeatedSelect();
+
+        assertEquals(17, stats.statements());
+        assertEquals("select u.name from users u where u.id=?", mostRepeated.getKey());
+        assertEquals(6, mostRepeated.getValue());
+    }
+
+    @Test
+    void testNoSelects() {
+        RequestSqlStats stats = new RequestSqlStats();
+        stats.recordStatement("delete from todos where user_id=?");
+
+        assertNull(stats.mostRepeatedSelect());
+    }
+
+    @Test
+    void testSequenceCallsAreNotRepeatedSelects() {
+        RequestSqlStats stats = new RequestSqlStats();
+        for (int i = 0; i < 10; i++) {
+            stats.recordStatement("select next value for todos_SEQ");
+            stats.recordStatement("select nextval('todos_SEQ')");
+            stats.recordStatement("select todos_SEQ.nextval from dual");
+        }
+        stats.recordStatement("select u.id from users u where u.id in (?, ?)");
+
+        assertEquals(31, stats.statements());
+        assertEquals("select u.id from users u where u.id in (?)", stats.mostRepeatedSelect().getKey());
+        assertEquals(1, stats.mostRepeatedSelect().getValue());
+    }
+}
@@ -0,0 +1,155 @@
+package org.swiftbeard.metrics;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.swiftbeard.dto.TodoCreateRequest;
+import org.swiftbeard.dto.UserCreateRequest;
+import org.swiftbeard.entity.Todo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SqlAccountingFilter.
+ * The test profile enables the X-SQL-* headers.
+ */
+@QuarkusTest
+class SqlAccountingFilterTest {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void testHeadersReportStatementsAndRows() {
+        Response response = given()
+            .when()
+            .get("/api/v1/todos?size=5")
+            .then()
+            .statusCode(200)
+            .header("X-SQL-N-Plus-One", nullValue())
+            .extract()
+            .response();
+
+        // Count plus one projection page; rows are the count row and the page
+        assertEquals(2, Integer.parseInt(response.header("X-SQL-Statements")));
+        assertTrue(Long.parseLong(response.header("X-SQL-Query-Rows")) > 1);
+        assertEquals(0, Long.parseLong(response.header("X-SQL-Entity-Loads")));
+        assertEquals(1, Integer.parseInt(response.header("X-SQL-Max-Select-Repeats")));
+        assertTrue(Double.parseDouble(response.header("X-SQL-JDBC-Time-Ms")) > 0);
+    }
+
+    /**
+     * Query rows and entity loads come from RequestAwareStatistics, which extends Hibernate's
+     * internal StatisticsImpl through an unsupported property. Fails if an upgrade stops
+     * installing it or calling its hooks.
+     */
+    @Test
+    void testRequestAwareStatisticsIsInstalled() {
+        assertInstanceOf(RequestAwareStatistics.class, sessionFactory.getStatistics());
+
+        UserCreateRequest user = new UserCreateRequest();
+        user.username = "sqlstatsloads";
+        user.email = "sqlstatsloads@example.com";
+        user.name = "SQL Stats Loads";
+        long userId = given()
+            .contentType(ContentType.JSON)
+            .body(user)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(201)
+            .extract()
+            .jsonPath()
+            .getLong("id");
+        // Read the user from the database, not from the second-level cache
+        sessionFactory.getCache().evictAllRegions();
+
+        Response response = given()
+            .when()
+            .get("/api/v1/users/" + userId)
+            .then()
+            .statusCode(200)
+            .extract()
+            .response();
+
+        assertEquals(1, Long.parseLong(response.header("X-SQL-Entity-Loads")));
+        assertEquals(0, Long.parseLong(response.header("X-SQL-Query-Rows")));
+
+        given().when().delete("/api/v1/users/" + userId).then().statusCode(204);
+    }
+
+    @Test
+    void testRequestsWithoutSqlReportZero() {
+        given()
+            .when()
+            .get("/api/v1/todos?count=bogus")
+            .then()
+            .statusCode(400)
+            .header("X-SQL-Statements", equalTo("0"));
+    }
+
+    @Test
+    void testMetricsTaggedByEndpoint() {
+        given().when().get("/api/v1/users/1/stats").then().statusCode(200);
+
+        given()
+            .when()
+            .get("/q/metrics")
+            .then()
+            .statusCode(200)
+            .body(containsString("sql_request_statements_count{endpoint=\"UserResource.getUserStats\"}"))
+            .body(containsString("sql_request_query_rows_sum{endpoint=\"UserResource.getUserStats\"}"))
+            .body(containsString("sql_request_entity_loads_sum{endpoint=\"UserResource.getUserStats\"}"))
+            .body(containsString("sql_request_jdbc_time_seconds_count{endpoint=\"UserResource.getUserStats\"}"));
+    }
+
+    @Test
+    void testBatchCreateIsNotReportedAsNPlusOne() {
+        UserCreateRequest userRequest = new UserCreateRequest();
+        userRequest.username = "sqlbatch";
+        userRequest.email = "sqlbatch@example.com";
+        userRequest.name = "SQL Batch";
+        long userId = given()
+            .contentType(ContentType.JSON)
+            .body(userRequest)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(201)
+            .extract()
+            .jsonPath()
+            .getLong("id");
+
+        // Enough todos for more ID sequence calls than the repeated-select threshold
+        List<TodoCreateRequest> todos = new ArrayList<>();
+        for (int i = 0; i < Todo.ID_ALLOCATION_SIZE * 7; i++) {
+            TodoCreateRequest todo = new TodoCreateRequest();
+            todo.title = "Batch " + i;
+            todo.userId = userId;
+            todos.add(todo);
+        }
+
+        try {
+            given()
+                .contentType(ContentType.JSON)
+                .body(todos)
+                .when()
+                .post("/api/v1/todos/batch")
+                .then()
+                .statusCode(200)
+                .body("created", equalTo(todos.size()))
+                .header("X-SQL-N-Plus-One", nullValue())
+                .header("X-SQL-Max-Select-Repeats", equalTo("1"));
+        } finally {
+            given().when().delete("/api/v1/users/" + userId).then().statusCode(204);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.swiftbeard.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Unit tests for CacheStatsResource.
+ * Verifies that repeated user lookups are served from the second-level cache
+ * and repeated reads by ID from the serialized response cache.
+ */
+@QuarkusTest
+class CacheStatsResourceTest {
+
+    @Test
+    void testUserLookupsHitSecondLevelCache() {
+        // Look up user 2 twice: the second lookup resolves the ID and loads the user by ID,
+        // which at most the first lookup takes to the database
+        given().when().get("/api/v1/users/username/jane_smith").then().statusCode(200);
+        given().when().get("/api/v1/users/username/jane_smith").then().statusCode(200);
+
+        given()
+            .when()
+            .get("/api/v1/cache/stats")
+            .then()
+            .statusCode(200)
+            .contentType(ContentType.JSON)
+            .body("statisticsEnabled", equalTo(true))
+            .body("regions.region", hasItems("org.swiftbeard.entity.User", "org.swiftbeard.entity.Todo"))
+            .body("regions.find { it.region == 'org.swiftbeard.entity.User' }.hitCount", greaterThan(0))
+            .body("naturalKeyCaches.cache", hasItems("users.username", "users.email"))
+            .body("keyFilters.filter", hasItems("users.username", "users.email"));
+    }
+
+    @Test
+    void testReadsByIdHitResponseCache() {
+        given().when().get("/api/v1/users/3").then().statusCode(200);
+        given().when().get("/api/v1/users/3").then().statusCode(200);
+
+        given()
+            .when()
+            .get("/api/v1/cache/stats")
+            .then()
+            .statusCode(200)
+            .body("responseCache.hitCount", greaterThan(0))
+            .body("responseCache.size", greaterThan(0))
+            .body("responseCache.sizeBytes", greaterThan(0))
+            .body("responseCache.maximumSizeBytes", greaterThan(0));
+    }
+}
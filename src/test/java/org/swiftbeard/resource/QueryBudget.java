@@ -0,0 +1,85 @@
+package org.swiftbeard.resource;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * Asserts that a request stays within a SQL statement and entity-load budget,
+ * measured through Hibernate statistics.
+ *
+ * <pre>
+ * QueryBudget.of(sessionFactory)
+ *     .maxStatements(2)
+ *     .maxEntityLoads(0)
+ *     .verify("list a user's todos", () -> given().get("/api/v1/todos?userId=1"));
+ * </pre>
+ *
+ * Budgets are upper bounds, so second-level cache hits never fail them. A change that
+ * turns a list into one query per row (N+1) or hydrates every matching row fails loudly,
+ * with the executed queries in the message.
+ */
+final class QueryBudget {
+
+    private final SessionFactory sessionFactory;
+    private long maxStatements = Long.MAX_VALUE;
+    private long maxEntityLoads = Long.MAX_VALUE;
+
+    private QueryBudget(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    static QueryBudget of(SessionFactory sessionFactory) {
+        return new QueryBudget(sessionFactory);
+    }
+
+    QueryBudget maxStatements(long maxStatements) {
+        this.maxStatements = maxStatements;
+        return this;
+    }
+
+    QueryBudget maxEntityLoads(long maxEntityLoads) {
+        this.maxEntityLoads = maxEntityLoads;
+        return this;
+    }
+
+    /**
+     * Run the work and fail if it exceeded the budget.
+     */
+    void verify(String description, Runnable work) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        work.run();
+
+        long statements = statistics.getPrepareStatementCount();
+        long entityLoads = statistics.getEntityLoadCount();
+        if (statements > maxStatements || entityLoads > maxEntityLoads) {
+            Assertions.fail(String.format(
+                    "%s exceeded its query budget: %d statements (max %d), %d entity loads (max %d)%n%s",
+                    description, statements, maxStatements, entityLoads, maxEntityLoads,
+                    describe(statistics)));
+        }
+    }
+
+    private static String describe(Statistics statistics) {
+        StringBuilder description = new StringBuilder();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            if (queryStatistics.getExecutionCount() > 0) {
+                description.append(String.format("  %dx, %d rows: %s%n",
+                        queryStatistics.getExecutionCount(), queryStatistics.getExecutionRowCount(), query));
+            }
+        }
+        for (String entityName : statistics.getEntityNames()) {
+            EntityStatistics entityStatistics = statistics.getEntityStatistics(entityName);
+            if (entityStatistics.getLoadCount() > 0) {
+                description.append(String.format("  %s: %d loads, %d lazy fetches%n",
+                        entityName, entityStatistics.getLoadCount(), entityStatistics.getFetchCount()));
+            }
+        }
+        return description.toString();
+    }
+}
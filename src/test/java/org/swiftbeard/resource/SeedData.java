@@ -0,0 +1,79 @@
+package org.swiftbeard.resource;
+
+import io.restassured.http.ContentType;
+import org.swiftbeard.dto.TodoCreateRequest;
+import org.swiftbeard.dto.UserCreateRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Users with realistic todo volumes for query-budget tests, seeded through the batch API.
+ * Every third todo is completed.
+ */
+final class SeedData {
+
+    /** Todos of the shared large user; enough that a per-row query or full load is obvious. */
+    static final int LARGE_USER_TODOS = 10_000;
+
+    private static final int BATCH_SIZE = 5000;
+
+    // The application, and so the H2 database, is shared by all @QuarkusTest classes
+    private static final Map<String, Long> SEEDED = new ConcurrentHashMap<>();
+
+    private SeedData() {
+    }
+
+    /**
+     * The shared user with {@link #LARGE_USER_TODOS} todos, seeded on first use.
+     * Tests must not modify or delete it.
+     */
+    static long largeUser() {
+        return SEEDED.computeIfAbsent("budget_large_user", username -> userWithTodos(username, LARGE_USER_TODOS));
+    }
+
+    /**
+     * Create a user with the given number of todos and return its ID.
+     */
+    static long userWithTodos(String username, int todoCount) {
+        UserCreateRequest user = new UserCreateRequest();
+        user.username = username;
+        user.email = username + "@example.com";
+        user.name = "Budget User " + username;
+
+        long userId = given()
+            .contentType(ContentType.JSON)
+            .body(user)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(201)
+            .extract()
+            .jsonPath()
+            .getLong("id");
+
+        for (int start = 0; start < todoCount; start += BATCH_SIZE) {
+            List<TodoCreateRequest> batch = new ArrayList<>();
+            for (int i = start; i < Math.min(todoCount, start + BATCH_SIZE); i++) {
+                TodoCreateRequest todo = new TodoCreateRequest();
+                todo.title = "Budget todo " + i;
+                todo.description = "Seeded for query budget tests";
+                todo.completed = i % 3 == 0;
+                todo.userId = userId;
+                batch.add(todo);
+            }
+            given()
+                .contentType(ContentType.JSON)
+                .body(batch)
+                .when()
+                .post("/api/v1/todos/batch")
+                .then()
+                .statusCode(200);
+        }
+        return userId;
+    }
+}
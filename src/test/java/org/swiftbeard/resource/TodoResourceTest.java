@@ -2,16 +2,33 @@ package org.swiftbeard.resource;
 
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
+import org.swiftbeard.concurrency.ConnectionLimiter;
+import org.swiftbeard.dto.TodoBulkUpdateRequest;
 import org.swiftbeard.dto.TodoCreateRequest;
+import org.swiftbeard.dto.TodoIdsRequest;
 import org.swiftbeard.dto.TodoUpdateRequest;
+import org.swiftbeard.dto.UserUpdateRequest;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
 
 /**
  * Comprehensive unit tests for TodoResource endpoints.
@@ -23,6 +40,15 @@ class TodoResourceTest {
 
     private static Long createdTodoId;
 
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    TodoResource todoResource;
+
+    @Inject
+    ConnectionLimiter connectionLimiter;
+
     @Test
     @Order(1)
     void testGetAllTodos() {
@@ -176,7 +202,8 @@ class TodoResourceTest {
             .body("id", notNullValue())
             .body("createdAt", notNullValue())
             .extract()
-            .path("id");
+            .jsonPath()
+            .getLong("id");
     }
 
     @Test
@@ -337,9 +364,10 @@ class TodoResourceTest {
     @Test
     @Order(21)
     void testDeleteCompletedTodosForUser() {
-        // First, get count of completed todos for user 1
+        // First, get count of completed todos for user 3
+        // (user 1 owns the todo created above, which is deleted individually later)
         int completedCount = given()
-            .queryParam("userId", 1)
+            .queryParam("userId", 3)
             .queryParam("completed", true)
             .when()
             .get("/api/v1/todos")
@@ -350,10 +378,10 @@ class TodoResourceTest {
         if (completedCount > 0) {
             given()
                 .when()
-                .delete("/api/v1/todos/user/1/completed")
+                .delete("/api/v1/todos/user/3/completed")
                 .then()
                 .statusCode(200)
-                .body("deletedCount", greaterThan(0L))
+                .body("deletedCount", greaterThan(0))
                 .body("message", notNullValue());
         }
     }
@@ -396,4 +424,846 @@ class TodoResourceTest {
             .statusCode(404)
             .body("error", containsString("not found"));
     }
+
+    @Test
+    @Order(25)
+    void testGetAllTodosWithKeysetPagination() {
+        String nextCursor = given()
+            .queryParam("after", "")
+            .queryParam("size", 3)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(3))
+            .header("X-Page-Size", "3")
+            .header("X-Next-Cursor", notNullValue())
+            .extract()
+            .header("X-Next-Cursor");
+
+        Long lastIdOfFirstPage = given()
+            .queryParam("after", "")
+            .queryParam("size", 3)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .extract()
+            .jsonPath()
+            .getLong("[2].id");
+
+        given()
+            .queryParam("after", nextCursor)
+            .queryParam("size", 3)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(greaterThan(0)))
+            .body("id", not(hasItem(lastIdOfFirstPage.intValue())));
+    }
+
+    @Test
+    @Order(26)
+    void testGetAllTodosWithInvalidCursor() {
+        given()
+            .queryParam("after", "not-a-cursor")
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(400)
+            .body("error", containsString("Invalid cursor"));
+    }
+
+    @Test
+    @Order(27)
+    void testGetAllTodosFilteredHonorsPageSize() {
+        given()
+            .queryParam("completed", false)
+            .queryParam("size", 2)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(2))
+            .body("completed", everyItem(equalTo(false)))
+            .header("X-Next-Cursor", notNullValue());
+    }
+
+    @Test
+    @Order(28)
+    void testGetAllTodosFilteredWithKeysetPagination() {
+        String nextCursor = given()
+            .queryParam("userId", 2)
+            .queryParam("after", "")
+            .queryParam("size", 1)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(1))
+            .extract()
+            .header("X-Next-Cursor");
+
+        given()
+            .queryParam("userId", 2)
+            .queryParam("after", nextCursor)
+            .queryParam("size", 100)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(greaterThan(0)))
+            .body("userId", everyItem(equalTo(2)))
+            .header("X-Next-Cursor", nullValue());
+    }
+
+    @Test
+    @Order(29)
+    void testGetTodosByUserIdWithPagination() {
+        given()
+            .queryParam("page", 0)
+            .queryParam("size", 1)
+            .when()
+            .get("/api/v1/todos/user/2")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(1))
+            .body("[0].userId", equalTo(2))
+            .header("X-Page", "0")
+            .header("X-Page-Size", "1");
+    }
+
+    @Test
+    @Order(30)
+    void testListTodosStatementCountIndependentOfPageSize() {
+        // Seed todos span three users; the user name must not cost one query per user
+        long firstTodoStatements = statementsFor("/api/v1/todos", 1);
+        long allUsersStatements = statementsFor("/api/v1/todos", 10);
+        long firstUserTodoStatements = statementsFor("/api/v1/todos/user/1", 1);
+        long userPageStatements = statementsFor("/api/v1/todos/user/1", 10);
+
+        // One SELECT for the page plus the COUNT / user lookup
+        Assertions.assertEquals(2, firstTodoStatements);
+        Assertions.assertEquals(firstTodoStatements, allUsersStatements);
+        Assertions.assertEquals(firstUserTodoStatements, userPageStatements);
+    }
+
+    private long statementsFor(String path, int size) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+            .queryParam("size", size)
+            .when()
+            .get(path)
+            .then()
+            .statusCode(200);
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @Order(31)
+    void testGetAllTodosCountModes() {
+        int matching = given()
+            .queryParam("userId", 2)
+            .queryParam("size", 100)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .header("X-Total-Count", notNullValue())
+            .extract()
+            .path("size()");
+
+        given()
+            .queryParam("userId", 2)
+            .queryParam("count", "exact")
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .header("X-Total-Count", String.valueOf(matching));
+
+        given()
+            .queryParam("count", "estimated")
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .header("X-Total-Count", notNullValue());
+
+        given()
+            .queryParam("count", "none")
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .header("X-Total-Count", nullValue());
+    }
+
+    @Test
+    @Order(32)
+    void testGetAllTodosWithInvalidCountMode() {
+        given()
+            .queryParam("count", "sometimes")
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(400)
+            .body("error", containsString("Invalid count mode"));
+    }
+
+    @Test
+    @Order(33)
+    void testExportTodosAsNdjson() {
+        String body = given()
+            .queryParam("userId", 2)
+            .when()
+            .get("/api/v1/todos/export")
+            .then()
+            .statusCode(200)
+            .contentType("application/x-ndjson")
+            .extract()
+            .asString();
+
+        String[] lines = body.split("\n");
+        String total = given()
+            .queryParam("userId", 2)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .extract()
+            .header("X-Total-Count");
+
+        Assertions.assertEquals(Integer.parseInt(total), lines.length);
+        for (String line : lines) {
+            Assertions.assertTrue(line.startsWith("{") && line.endsWith("}"));
+            Assertions.assertTrue(line.contains("\"userId\":2"));
+        }
+    }
+
+    @Test
+    @Order(34)
+    void testCreateTodosInBatch() {
+        List<TodoCreateRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            TodoCreateRequest request = new TodoCreateRequest();
+            request.title = "Batch Todo " + i;
+            request.userId = 2L;
+            requests.add(request);
+        }
+        TodoCreateRequest unknownUser = new TodoCreateRequest();
+        unknownUser.title = "Orphan";
+        unknownUser.userId = 999999L;
+        requests.add(unknownUser);
+        TodoCreateRequest invalid = new TodoCreateRequest();
+        invalid.title = "";
+        invalid.userId = 2L;
+        requests.add(invalid);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(requests)
+            .when()
+            .post("/api/v1/todos/batch")
+            .then()
+            .statusCode(200)
+            .body("created", equalTo(45))
+            .body("failed", equalTo(2))
+            .body("results", hasSize(47))
+            .body("results[0].status", equalTo(201))
+            .body("results[0].id", notNullValue())
+            .body("results[45].status", equalTo(400))
+            .body("results[45].error", containsString("not found"))
+            .body("results[46].status", equalTo(400))
+            .body("results[46].violations.title", notNullValue());
+
+        given()
+            .queryParam("userId", 2)
+            .queryParam("size", 100)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .body("title", hasItem("Batch Todo 44"));
+    }
+
+    @Test
+    @Order(35)
+    void testCreateTodosInBatchEmpty() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("[]")
+            .when()
+            .post("/api/v1/todos/batch")
+            .then()
+            .statusCode(400);
+    }
+
+    @Test
+    @Order(36)
+    void testBulkUpdateTodos() {
+        TodoBulkUpdateRequest request = new TodoBulkUpdateRequest();
+        request.ids = List.of(5L, 7L, 999999L);
+        request.description = "Bulk updated";
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .patch("/api/v1/todos/bulk")
+            .then()
+            .statusCode(200)
+            .body("updatedCount", equalTo(2))
+            .body("todos", hasSize(2))
+            .body("todos.description", everyItem(equalTo("Bulk updated")));
+    }
+
+    @Test
+    @Order(37)
+    void testBulkUpdateTodosWithoutChanges() {
+        TodoBulkUpdateRequest request = new TodoBulkUpdateRequest();
+        request.ids = List.of(5L);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .patch("/api/v1/todos/bulk")
+            .then()
+            .statusCode(400)
+            .body("error", containsString("At least one field"));
+    }
+
+    @Test
+    @Order(38)
+    void testBulkCompleteAndUncompleteTodos() {
+        TodoIdsRequest request = new TodoIdsRequest();
+        request.ids = List.of(5L, 7L);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .patch("/api/v1/todos/bulk/complete")
+            .then()
+            .statusCode(200)
+            .body("updatedCount", equalTo(2))
+            .body("todos.completed", everyItem(equalTo(true)));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .patch("/api/v1/todos/bulk/uncomplete")
+            .then()
+            .statusCode(200)
+            .body("updatedCount", equalTo(2))
+            .body("todos.completed", everyItem(equalTo(false)));
+    }
+
+    @Test
+    @Order(39)
+    void testBulkCompleteTodosWithoutIds() {
+        given()
+            .contentType(ContentType.JSON)
+            .body(new TodoIdsRequest())
+            .when()
+            .patch("/api/v1/todos/bulk/complete")
+            .then()
+            .statusCode(400);
+    }
+
+    @Test
+    @Order(40)
+    void testDeleteCompletedTodosInChunks() {
+        List<TodoCreateRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            TodoCreateRequest request = new TodoCreateRequest();
+            request.title = "Chunked Done " + i;
+            request.completed = true;
+            request.userId = 3L;
+            requests.add(request);
+        }
+        given()
+            .contentType(ContentType.JSON)
+            .body(requests)
+            .when()
+            .post("/api/v1/todos/batch")
+            .then()
+            .statusCode(200)
+            .body("created", equalTo(7));
+
+        given()
+            .queryParam("chunkSize", 3)
+            .when()
+            .delete("/api/v1/todos/user/3/completed")
+            .then()
+            .statusCode(200)
+            .body("deletedCount", equalTo(7));
+
+        given()
+            .queryParam("userId", 3)
+            .queryParam("completed", true)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(0));
+    }
+
+    // Query budgets: statement and entity-load ceilings against a user with 10k todos
+
+    @Test
+    @Order(41)
+    void testListTodosQueryBudget() {
+        long userId = SeedData.largeUser();
+
+        for (int size : new int[] {20, 1000}) {
+            QueryBudget.of(sessionFactory)
+                .maxStatements(2)
+                .maxEntityLoads(0)
+                .verify("GET /api/v1/todos?userId&size=" + size, () -> given()
+                    .queryParam("userId", userId)
+                    .queryParam("size", size)
+                    .when()
+                    .get("/api/v1/todos")
+                    .then()
+                    .statusCode(200)
+                    .body("$", hasSize(size))
+                    .header("X-Total-Count", String.valueOf(SeedData.LARGE_USER_TODOS)));
+        }
+
+        QueryBudget.of(sessionFactory)
+            .maxStatements(2)
+            .maxEntityLoads(0)
+            .verify("GET /api/v1/todos?userId&completed", () -> given()
+                .queryParam("userId", userId)
+                .queryParam("completed", true)
+                .when()
+                .get("/api/v1/todos")
+                .then()
+                .statusCode(200)
+                .body("completed", everyItem(equalTo(true))));
+    }
+
+    @Test
+    @Order(42)
+    void testListUserTodosQueryBudget() {
+        long userId = SeedData.largeUser();
+
+        String cursor = given()
+            .queryParam("after", "")
+            .queryParam("size", 20)
+            .when()
+            .get("/api/v1/todos/user/" + userId)
+            .then()
+            .statusCode(200)
+            .extract()
+            .header("X-Next-Cursor");
+
+        QueryBudget.of(sessionFactory)
+            .maxStatements(3)
+            .maxEntityLoads(1)
+            .verify("GET /api/v1/todos/user/{userId}", () -> given()
+                .queryParam("size", 100)
+                .when()
+                .get("/api/v1/todos/user/" + userId)
+                .then()
+                .statusCode(200)
+                .body("$", hasSize(100)));
+
+        QueryBudget.of(sessionFactory)
+            .maxStatements(2)
+            .maxEntityLoads(1)
+            .verify("GET /api/v1/todos/user/{userId}?after", () -> given()
+                .queryParam("after", cursor)
+                .queryParam("size", 100)
+                .when()
+                .get("/api/v1/todos/user/" + userId)
+                .then()
+                .statusCode(200)
+                .body("$", hasSize(100)));
+    }
+
+    @Test
+    @Order(43)
+    void testGetTodoQueryBudget() {
+        long userId = SeedData.largeUser();
+        long todoId = given()
+            .queryParam("userId", userId)
+            .queryParam("size", 1)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath()
+            .getLong("[0].id");
+
+        QueryBudget.of(sessionFactory)
+            .maxStatements(2)
+            .maxEntityLoads(2)
+            .verify("GET /api/v1/todos/{id}", () -> given()
+                .when()
+                .get("/api/v1/todos/" + todoId)
+                .then()
+                .statusCode(200)
+                .body("userId", equalTo((int) userId)));
+    }
+
+    @Test
+    @Order(44)
+    void testExportQueryBudget() {
+        long userId = SeedData.largeUser();
+
+        QueryBudget.of(sessionFactory)
+            .maxStatements(1)
+            .maxEntityLoads(0)
+            .verify("GET /api/v1/todos/export?userId", () -> {
+                String body = given()
+                    .queryParam("userId", userId)
+                    .when()
+                    .get("/api/v1/todos/export")
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .asString();
+                Assertions.assertEquals(SeedData.LARGE_USER_TODOS, body.lines().count());
+            });
+    }
+
+    @Test
+    @Order(45)
+    void testGetTodoNotModified() {
+        TodoCreateRequest request = new TodoCreateRequest();
+        request.title = "ETag Todo";
+        request.userId = 1L;
+
+        Response created = given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/todos");
+        long todoId = created.then().statusCode(201).header("ETag", notNullValue()).extract().jsonPath().getLong("id");
+        String etag = created.header("ETag");
+
+        given()
+            .when()
+            .get("/api/v1/todos/" + todoId)
+            .then()
+            .statusCode(200)
+            .header("ETag", equalTo(etag));
+
+        // Answered from the response cache or the version-only query, without hydrating the todo or its user
+        QueryBudget.of(sessionFactory)
+            .maxStatements(1)
+            .maxEntityLoads(0)
+            .verify("GET /api/v1/todos/{id} If-None-Match", () -> given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/v1/todos/" + todoId)
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag)));
+
+        given()
+            .header("If-None-Match", etag)
+            .when()
+            .get("/api/v1/todos/999999")
+            .then()
+            .statusCode(404);
+    }
+
+    @Test
+    @Order(46)
+    void testUpdateTodoWithIfMatch() {
+        TodoCreateRequest request = new TodoCreateRequest();
+        request.title = "If-Match Todo";
+        request.userId = 1L;
+
+        Response created = given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/todos");
+        long todoId = created.then().statusCode(201).extract().jsonPath().getLong("id");
+        String etag = created.header("ETag");
+
+        TodoUpdateRequest update = new TodoUpdateRequest();
+        update.title = "If-Match Todo (updated)";
+
+        String updatedEtag = given()
+            .contentType(ContentType.JSON)
+            .header("If-Match", etag)
+            .body(update)
+            .when()
+            .put("/api/v1/todos/" + todoId)
+            .then()
+            .statusCode(200)
+            .body("title", equalTo(update.title))
+            .extract()
+            .header("ETag");
+        Assertions.assertNotEquals(etag, updatedEtag);
+
+        // The stale tag no longer matches, so the client gets the new representation
+        given()
+            .header("If-None-Match", etag)
+            .when()
+            .get("/api/v1/todos/" + todoId)
+            .then()
+            .statusCode(200)
+            .header("ETag", equalTo(updatedEtag))
+            .body("title", equalTo(update.title));
+
+        given()
+            .header("If-Match", etag)
+            .when()
+            .patch("/api/v1/todos/" + todoId + "/toggle")
+            .then()
+            .statusCode(412)
+            .body("error", containsString("modified"));
+
+        given()
+            .header("If-Match", updatedEtag)
+            .when()
+            .patch("/api/v1/todos/" + todoId + "/toggle")
+            .then()
+            .statusCode(200)
+            .body("completed", equalTo(true))
+            .header("ETag", not(equalTo(updatedEtag)));
+    }
+
+    @Test
+    @Order(47)
+    void testGetTodosByUserIdNotModified() {
+        long userId = SeedData.userWithTodos("list_etag_user", 5);
+        String path = "/api/v1/todos/user/" + userId;
+
+        String etag = given()
+            .when()
+            .get(path)
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(5))
+            .extract()
+            .header("ETag");
+        Assertions.assertNotNull(etag);
+
+        // Only the counter row is read; the todos table is not queried
+        QueryBudget.of(sessionFactory)
+            .maxStatements(1)
+            .maxEntityLoads(0)
+            .verify("GET /api/v1/todos/user/{userId} If-None-Match", () -> given()
+                .header("If-None-Match", etag)
+                .queryParam("after", "")
+                .when()
+                .get(path)
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag)));
+    }
+
+    @Test
+    @Order(48)
+    void testTodoListVersionChangesOnEveryWrite() {
+        long userId = SeedData.userWithTodos("list_version_user", 3);
+        String path = "/api/v1/todos/user/" + userId;
+        long todoId = given()
+            .when()
+            .get(path)
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath()
+            .getLong("[0].id");
+
+        String etag = listETag(path, null);
+
+        TodoUpdateRequest update = new TodoUpdateRequest();
+        update.title = "Retitled";
+        given().contentType(ContentType.JSON).body(update).when().put("/api/v1/todos/" + todoId)
+            .then().statusCode(200);
+        etag = listETag(path, etag);
+
+        given().when().patch("/api/v1/todos/" + todoId + "/toggle").then().statusCode(200);
+        etag = listETag(path, etag);
+
+        TodoBulkUpdateRequest bulk = new TodoBulkUpdateRequest();
+        bulk.ids = List.of(todoId);
+        bulk.description = "Bulk";
+        given().contentType(ContentType.JSON).body(bulk).when().patch("/api/v1/todos/bulk")
+            .then().statusCode(200);
+        etag = listETag(path, etag);
+
+        // The list includes the user name, so renaming the user is a change too
+        UserUpdateRequest rename = new UserUpdateRequest();
+        rename.name = "Renamed Owner";
+        given().contentType(ContentType.JSON).body(rename).when().put("/api/v1/users/" + userId)
+            .then().statusCode(200);
+        etag = listETag(path, etag);
+
+        given().when().delete("/api/v1/todos/" + todoId).then().statusCode(204);
+        listETag(path, etag);
+    }
+
+    @Test
+    @Order(49)
+    void testGetTodoServedFromResponseCache() {
+        long userId = SeedData.userWithTodos("json_cache_user", 1);
+        long todoId = given()
+            .when()
+            .get("/api/v1/todos/user/" + userId)
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath()
+            .getLong("[0].id");
+
+        String etag = given().when().get("/api/v1/todos/" + todoId).then().statusCode(200)
+            .extract().header("ETag");
+
+        QueryBudget.of(sessionFactory)
+            .maxStatements(0)
+            .maxEntityLoads(0)
+            .verify("GET /api/v1/todos/{id} cached", () -> given()
+                .when()
+                .get("/api/v1/todos/" + todoId)
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .header("ETag", equalTo(etag))
+                .body("id", equalTo((int) todoId))
+                .body("userId", equalTo((int) userId)));
+
+        // Every write path that changes the representation drops the cached bytes
+        TodoUpdateRequest update = new TodoUpdateRequest();
+        update.title = "Cached then updated";
+        given().contentType(ContentType.JSON).body(update).when().put("/api/v1/todos/" + todoId)
+            .then().statusCode(200);
+        given().when().get("/api/v1/todos/" + todoId).then().statusCode(200)
+            .body("title", equalTo(update.title));
+
+        // The seeded todo starts out completed
+        given().when().patch("/api/v1/todos/" + todoId + "/toggle").then().statusCode(200);
+        given().when().get("/api/v1/todos/" + todoId).then().statusCode(200)
+            .body("completed", equalTo(false));
+
+        TodoIdsRequest ids = new TodoIdsRequest();
+        ids.ids = List.of(todoId);
+        given().contentType(ContentType.JSON).body(ids).when().patch("/api/v1/todos/bulk/complete")
+            .then().statusCode(200);
+        given().when().get("/api/v1/todos/" + todoId).then().statusCode(200)
+            .body("completed", equalTo(true));
+
+        UserUpdateRequest rename = new UserUpdateRequest();
+        rename.name = "Cache Owner Renamed";
+        given().contentType(ContentType.JSON).body(rename).when().put("/api/v1/users/" + userId)
+            .then().statusCode(200);
+        given().when().get("/api/v1/todos/" + todoId).then().statusCode(200)
+            .body("userName", equalTo(rename.name));
+
+        given().when().delete("/api/v1/todos/" + todoId).then().statusCode(204);
+        given().when().get("/api/v1/todos/" + todoId).then().statusCode(404);
+    }
+
+    @Test
+    @Order(50)
+    void testExportStreamHoldsConnectionSlot() throws Exception {
+        // The method takes no slot itself; only writing the body does
+        StreamingOutput stream = (StreamingOutput) todoResource.exportTodos(2L, null).getEntity();
+        Assertions.assertEquals(0, connectionLimiter.inFlight());
+
+        int held = 0;
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            while (held < connectionLimiter.limit()) {
+                Assertions.assertTrue(connectionLimiter.tryAcquire());
+                held++;
+            }
+
+            Thread writer = Thread.ofVirtual().start(() -> {
+                try {
+                    stream.write(body);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            while (connectionLimiter.waiting() == 0 && writer.isAlive()) {
+                Thread.sleep(1);
+            }
+            Assertions.assertTrue(writer.isAlive(), "Export was written without a connection slot");
+            Assertions.assertEquals(0, body.size());
+
+            connectionLimiter.release();
+            held--;
+            writer.join();
+
+            Assertions.assertTrue(body.toString(StandardCharsets.UTF_8).contains("\"userId\":2"));
+            Assertions.assertEquals(held, connectionLimiter.inFlight());
+        } finally {
+            for (; held > 0; held--) {
+                connectionLimiter.release();
+            }
+        }
+    }
+
+    @Test
+    @Order(52)
+    void testCachedGetTodoNeedsNoConnectionSlot() throws Exception {
+        given().when().get("/api/v1/todos/1").then().statusCode(200);
+
+        int held = 0;
+        try {
+            while (held < connectionLimiter.limit()) {
+                Assertions.assertTrue(connectionLimiter.tryAcquire());
+                held++;
+            }
+
+            // Without a free slot, only a response cache hit can answer before the acquire timeout
+            given().when().get("/api/v1/todos/1").then().statusCode(200)
+                .time(lessThan(connectionLimiter.acquireTimeout().toMillis()));
+            Assertions.assertEquals(0, connectionLimiter.waiting());
+        } finally {
+            for (; held > 0; held--) {
+                connectionLimiter.release();
+            }
+        }
+    }
+
+    @Test
+    @Order(51)
+    void testBulkUpdateTodosWithBlankTitle() {
+        TodoBulkUpdateRequest request = new TodoBulkUpdateRequest();
+        request.ids = List.of(5L);
+        request.title = "   ";
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .patch("/api/v1/todos/bulk")
+            .then()
+            .statusCode(400)
+            .body(containsString("Title must not be blank"));
+    }
+
+    /**
+     * Revalidate a per-user list with the previous tag, expecting a changed list and a new tag.
+     */
+    private String listETag(String path, String previous) {
+        RequestSpecification request = given();
+        if (previous != null) {
+            request.header("If-None-Match", previous);
+        }
+        String etag = request
+            .when()
+            .get(path)
+            .then()
+            .statusCode(200)
+            .extract()
+            .header("ETag");
+        Assertions.assertNotNull(etag);
+        Assertions.assertNotEquals(previous, etag);
+        return etag;
+    }
 }
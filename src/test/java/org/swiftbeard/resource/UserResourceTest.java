@@ -1,13 +1,30 @@
 package org.swiftbeard.resource;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
+import org.swiftbeard.dto.TodoCreateRequest;
 import org.swiftbeard.dto.UserCreateRequest;
 import org.swiftbeard.dto.UserUpdateRequest;
+import org.swiftbeard.entity.Todo;
+import org.swiftbeard.entity.TodoCounterReconciler;
+import org.swiftbeard.entity.User;
+import org.swiftbeard.entity.UserTodoCounts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 
@@ -21,6 +38,12 @@ class UserResourceTest {
 
     private static Long createdUserId;
 
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    TodoCounterReconciler counterReconciler;
+
     @Test
     @Order(1)
     void testGetAllUsers() {
@@ -128,7 +151,8 @@ class UserResourceTest {
             .body("id", notNullValue())
             .body("createdAt", notNullValue())
             .extract()
-            .path("id");
+            .jsonPath()
+            .getLong("id");
     }
 
     @Test
@@ -317,4 +341,715 @@ class UserResourceTest {
             .statusCode(404)
             .body("error", containsString("not found"));
     }
+
+    @Test
+    @Order(21)
+    void testGetAllUsersCountModes() {
+        int matching = given()
+            .queryParam("search", "john")
+            .queryParam("count", "exact")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .extract()
+            .path("size()");
+
+        given()
+            .queryParam("search", "john")
+            .queryParam("count", "exact")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .header("X-Total-Count", String.valueOf(matching));
+
+        given()
+            .queryParam("count", "estimated")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .header("X-Total-Count", notNullValue());
+
+        given()
+            .queryParam("count", "none")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .header("X-Total-Count", nullValue());
+    }
+
+    @Test
+    @Order(22)
+    void testGetAllUsersWithInvalidCountMode() {
+        given()
+            .queryParam("count", "sometimes")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(400)
+            .body("error", containsString("Invalid count mode"));
+    }
+
+    @Test
+    @Order(23)
+    void testDeleteUserWithManyTodos() {
+        UserCreateRequest userRequest = new UserCreateRequest();
+        userRequest.username = "manytodos";
+        userRequest.email = "manytodos@example.com";
+        userRequest.name = "Many Todos";
+
+        long userId = given()
+            .contentType(ContentType.JSON)
+            .body(userRequest)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(201)
+            .extract()
+            .jsonPath()
+            .getLong("id");
+
+        List<TodoCreateRequest> todos = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            TodoCreateRequest todo = new TodoCreateRequest();
+            todo.title = "Todo " + i;
+            todo.userId = userId;
+            todos.add(todo);
+        }
+        given()
+            .contentType(ContentType.JSON)
+            .body(todos)
+            .when()
+            .post("/api/v1/todos/batch")
+            .then()
+            .statusCode(200)
+            .body("created", equalTo(50));
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        given()
+            .when()
+            .delete("/api/v1/users/" + userId)
+            .then()
+            .statusCode(204);
+
+        // Bulk DELETEs for the counters, the todos and the user; nothing is loaded
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+
+        given()
+            .queryParam("userId", userId)
+            .when()
+            .get("/api/v1/todos")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(0));
+    }
+
+    @Test
+    @Order(24)
+    void testUsernameLookupUsesNaturalKeyCache() {
+        UserCreateRequest userRequest = new UserCreateRequest();
+        userRequest.username = "naturalkey";
+        userRequest.email = "naturalkey@example.com";
+        userRequest.name = "Natural Key";
+
+        long userId = given()
+            .contentType(ContentType.JSON)
+            .body(userRequest)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(201)
+            .extract()
+            .jsonPath()
+            .getLong("id");
+
+        given().when().get("/api/v1/users/username/naturalkey").then().statusCode(200);
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        given()
+            .when()
+            .get("/api/v1/users/username/naturalkey")
+            .then()
+            .statusCode(200)
+            .body("id", equalTo((int) userId));
+
+        // Username resolves to an ID in memory and the user comes from the second-level cache
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+
+        UserUpdateRequest updateRequest = new UserUpdateRequest();
+        updateRequest.username = "naturalkey2";
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(updateRequest)
+            .when()
+            .put("/api/v1/users/" + userId)
+            .then()
+            .statusCode(200);
+
+        given().when().get("/api/v1/users/username/naturalkey").then().statusCode(404);
+        given().when().get("/api/v1/users/username/naturalkey2").then().statusCode(200);
+
+        // The old username is free again
+        userRequest.email = "naturalkey-other@example.com";
+        given()
+            .contentType(ContentType.JSON)
+            .body(userRequest)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(201);
+
+        given().when().delete("/api/v1/users/" + userId).then().statusCode(204);
+        given().when().get("/api/v1/users/username/naturalkey2").then().statusCode(404);
+    }
+
+    @Test
+    @Order(25)
+    void testCreateUserDuplicateMissedByFilterReturnsConflict() {
+        // Written directly, so the in-memory filters never see these keys
+        QuarkusTransaction.requiringNew().run(() -> {
+            User user = new User();
+            user.username = "unfiltered";
+            user.email = "unfiltered@example.com";
+            user.name = "Unfiltered";
+            user.persist();
+        });
+
+        UserCreateRequest request = new UserCreateRequest();
+        request.username = "unfiltered";
+        request.email = "unfiltered-new@example.com";
+        request.name = "Duplicate";
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(409)
+            .body("error", equalTo("Username already exists: unfiltered"));
+
+        request.username = "unfiltered-new";
+        request.email = "unfiltered@example.com";
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(409)
+            .body("error", equalTo("Email already exists: unfiltered@example.com"));
+    }
+
+    @Test
+    @Order(26)
+    void testCreateUserWithFreshKeysSkipsPreCheckQueries() {
+        UserCreateRequest request = new UserCreateRequest();
+        request.username = "freshkeys";
+        request.email = "freshkeys@example.com";
+        request.name = "Fresh Keys";
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(201);
+
+        // No uniqueness SELECTs: only the user and counter INSERTs (plus an occasional sequence fetch)
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 3,
+            "Unexpected statements: " + statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    @Order(27)
+    void testSearchUsersRanksAndPaginates() {
+        // Exact username match ranks first, ahead of other users containing "o"
+        given()
+            .queryParam("search", "JOHN_DOE")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .body("[0].username", equalTo("john_doe"));
+
+        int total = Integer.parseInt(given()
+            .queryParam("search", "o")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .extract()
+            .header("X-Total-Count"));
+        Assertions.assertTrue(total > 2);
+
+        List<Integer> firstPage = given()
+            .queryParam("search", "o")
+            .queryParam("page", 0)
+            .queryParam("size", 2)
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .header("X-Total-Count", String.valueOf(total))
+            .body("$", hasSize(2))
+            .extract()
+            .path("id");
+
+        List<Integer> secondPage = given()
+            .queryParam("search", "o")
+            .queryParam("page", 1)
+            .queryParam("size", 2)
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .extract()
+            .path("id");
+
+        Assertions.assertFalse(secondPage.isEmpty());
+        secondPage.forEach(id -> Assertions.assertFalse(firstPage.contains(id)));
+    }
+
+    @Test
+    @Order(28)
+    void testSearchUsersTreatsWildcardsLiterally() {
+        given()
+            .queryParam("search", "%")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .header("X-Total-Count", "0")
+            .body("$", hasSize(0));
+
+        // Matches the email as well as the name
+        given()
+            .queryParam("search", "smith@example")
+            .when()
+            .get("/api/v1/users")
+            .then()
+            .statusCode(200)
+            .body("username", hasItem("jane_smith"));
+    }
+
+    @Test
+    @Order(29)
+    void testUserStatsTrackTodoWrites() {
+        UserCreateRequest userRequest = new UserCreateRequest();
+        userRequest.username = "counted";
+        userRequest.email = "counted@example.com";
+        userRequest.name = "Counted";
+
+        long userId = given()
+            .contentType(ContentType.JSON)
+            .body(userRequest)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(201)
+            .extract()
+            .jsonPath()
+            .getLong("id");
+
+        List<Long> todoIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            TodoCreateRequest todo = new TodoCreateRequest();
+            todo.title = "Counted " + i;
+            todo.userId = userId;
+            todo.completed = i == 0;
+            todoIds.add(given()
+                .contentType(ContentType.JSON)
+                .body(todo)
+                .when()
+                .post("/api/v1/todos")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id"));
+        }
+
+        // 4 todos, 1 completed -> toggle one (2), bulk-complete two more (3), delete a pending one
+        given().when().patch("/api/v1/todos/" + todoIds.get(1) + "/toggle").then().statusCode(200);
+        given()
+            .contentType(ContentType.JSON)
+            .body(java.util.Map.of("ids", List.of(todoIds.get(0), todoIds.get(2))))
+            .when()
+            .patch("/api/v1/todos/bulk/complete")
+            .then()
+            .statusCode(200);
+        given().when().delete("/api/v1/todos/" + todoIds.get(3)).then().statusCode(204);
+
+        assertStats(userId, 3, 3, 0);
+
+        given().when().delete("/api/v1/todos/user/" + userId + "/completed").then().statusCode(200);
+        assertStats(userId, 0, 0, 0);
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        assertStats(userId, 0, 0, 0);
+
+        // The user comes from the second-level cache; the counters are one primary-key read
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @Order(30)
+    void testReconcileFixesCounterDrift() {
+        long userId = User.<User>find("username", "counted").firstResult().id;
+
+        // Written directly, so the counters never see this todo
+        QuarkusTransaction.requiringNew().run(() -> {
+            Todo todo = new Todo();
+            todo.title = "Imported";
+            todo.completed = true;
+            todo.user = User.findById(userId);
+            todo.persist();
+        });
+        assertStats(userId, 0, 0, 0);
+
+        Assertions.assertTrue(counterReconciler.reconcile() >= 1);
+        assertStats(userId, 1, 1, 0);
+        Assertions.assertEquals(0, counterReconciler.reconcile());
+    }
+
+    @Test
+    @Order(40)
+    void testReconcileWaitsForConcurrentAdjust() throws Exception {
+        UserCreateRequest userRequest = new UserCreateRequest();
+        userRequest.username = "reconciled";
+        userRequest.email = "reconciled@example.com";
+        userRequest.name = "Reconciled";
+        long userId = given()
+            .contentType(ContentType.JSON)
+            .body(userRequest)
+            .when()
+            .post("/api/v1/users")
+            .then()
+            .statusCode(201)
+            .extract()
+            .jsonPath()
+            .getLong("id");
+        CountDownLatch adjusted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // A todo write that has adjusted the counters but not yet committed
+        CompletableFuture<Long> write = CompletableFuture.supplyAsync(() ->
+                QuarkusTransaction.requiringNew().call(() -> {
+                    Todo todo = new Todo();
+                    todo.title = "Written during reconcile";
+                    todo.user = User.findById(userId);
+                    todo.persist();
+                    UserTodoCounts.adjust(userId, 1, 0);
+                    adjusted.countDown();
+                    release.await();
+                    return todo.id;
+                }));
+        Assertions.assertTrue(adjusted.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Long> reconcile = CompletableFuture.supplyAsync(counterReconciler::reconcile);
+        Thread.sleep(200);
+        release.countDown();
+        long todoId = write.get(10, TimeUnit.SECONDS);
+
+        // The recount ran after the write committed, so it saw the todo and found nothing to correct
+        Assertions.assertEquals(0, reconcile.get(10, TimeUnit.SECONDS));
+        assertStats(userId, 1, 0, 1);
+
+        given().when().delete("/api/v1/todos/" + todoId).then().statusCode(204);
+        given().when().delete("/api/v1/users/" + userId).then().statusCode(204);
+    }
+
+    @Test
+    @Order(31)
+    void testGetStatsForManyUsers() {
+        given()
+            .queryParam("ids", "3,1,999999")
+            .queryParam("ids", "2")
+            .when()
+            .get("/api/v1/users/stats")
+            .then()
+            .statusCode(200)
+            .body("$", hasSize(3))
+            .body("userId", contains(1, 2, 3))
+            .body("[0].username", equalTo("john_doe"))
+            .body("[0].totalTodos", notNullValue())
+            .body("[0].pendingTodos", notNullValue());
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given().queryParam("ids", "1").when().get("/api/v1/users/stats").then().statusCode(200);
+        long singleUser = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        given().queryParam("ids", "1,2,3").when().get("/api/v1/users/stats").then().statusCode(200);
+
+        // One query for the users and one for their counters, however many users are requested
+        Assertions.assertEquals(2, singleUser);
+        Assertions.assertEquals(singleUser, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @Order(32)
+    void testGetStatsForAllUsersPaged() {
+        given()
+            .queryParam("page", 0)
+            .queryParam("size", 2)
+            .when()
+            .get("/api/v1/users/stats")
+            .then()
+            .statusCode(200)
+            .header("X-Total-Count", notNullValue())
+            .header("X-Page", "0")
+            .header("X-Page-Size", "2")
+            .body("$", hasSize(2))
+            .body("[0].userId", equalTo(1));
+    }
+
+    @Test
+    @Order(33)
+    void testGetStatsForManyUsersWithInvalidId() {
+        given()
+            .queryParam("ids", "1,abc")
+            .when()
+            .get("/api/v1/users/stats")
+            .then()
+            .statusCode(400)
+            .body("error", containsString("Invalid user id"));
+    }
+
+    private void assertStats(long userId, int total, int completed, int pending) {
+        given()
+            .when()
+            .get("/api/v1/users/" + userId + "/stats")
+            .then()
+            .statusCode(200)
+            .body("totalTodos", equalTo(total))
+            .body("completedTodos", equalTo(completed))
+            .body("pendingTodos", equalTo(pending));
+    }
+
+    // Query budgets: statement and entity-load ceilings against users with 10k todos
+
+    @Test
+    @Order(34)
+    void testUserStatsQueryBudget() {
+        long userId = SeedData.largeUser();
+
+        QueryBudget.of(sessionFactory)
+            .maxStatements(2)
+            .maxEntityLoads(2)
+            .verify("GET /api/v1/users/{id}/stats", () -> given()
+                .when()
+                .get("/api/v1/users/" + userId + "/stats")
+                .then()
+                .statusCode(200)
+                .body("totalTodos", equalTo(SeedData.LARGE_USER_TODOS)));
+
+        QueryBudget.of(sessionFactory)
+            .maxStatements(3)
+            .maxEntityLoads(8)
+            .verify("GET /api/v1/users/stats?ids", () -> given()
+                .queryParam("ids", userId + ",1,2,3")
+                .when()
+                .get("/api/v1/users/stats")
+                .then()
+                .statusCode(200)
+                .body("$", hasSize(4)));
+    }
+
+    @Test
+    @Order(35)
+    void testListAndSearchUsersQueryBudget() {
+        SeedData.largeUser();
+
+        QueryBudget.of(sessionFactory)
+            .maxStatements(2)
+            .maxEntityLoads(20)
+            .verify("GET /api/v1/users", () -> given()
+                .queryParam("size", 20)
+                .when()
+                .get("/api/v1/users")
+                .then()
+                .statusCode(200));
+
+        QueryBudget.of(sessionFactory)
+            .maxStatements(2)
+            .maxEntityLoads(20)
+            .verify("GET /api/v1/users?search", () -> given()
+                .queryParam("search", "budget")
+                .queryParam("size", 20)
+                .when()
+                .get("/api/v1/users")
+                .then()
+                .statusCode(200)
+                .body("$", hasSize(greaterThan(0))));
+    }
+
+    @Test
+    @Order(36)
+    void testDeleteUserQueryBudget() {
+        long userId = SeedData.userWithTodos("budget_delete_user", SeedData.LARGE_USER_TODOS);
+
+        // Bulk statements only: neither the user's todos nor the user itself are loaded
+        QueryBudget.of(sessionFactory)
+            .maxStatements(3)
+            .maxEntityLoads(0)
+            .verify("DELETE /api/v1/users/{id}", () -> given()
+                .when()
+                .delete("/api/v1/users/" + userId)
+                .then()
+                .statusCode(204));
+    }
+
+    @Test
+    @Order(37)
+    void testGetUserNotModified() {
+        UserCreateRequest request = new UserCreateRequest();
+        request.username = "etag_user";
+        request.email = "etag_user@example.com";
+        request.name = "ETag User";
+
+        Response created = given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/users");
+        long userId = created.then().statusCode(201).header("ETag", notNullValue()).extract().jsonPath().getLong("id");
+        String etag = created.header("ETag");
+
+        given()
+            .when()
+            .get("/api/v1/users/" + userId)
+            .then()
+            .statusCode(200)
+            .header("ETag", equalTo(etag));
+
+        // Answered from the response cache or the version-only query, without hydrating the user
+        QueryBudget.of(sessionFactory)
+            .maxStatements(1)
+            .maxEntityLoads(0)
+            .verify("GET /api/v1/users/{id} If-None-Match", () -> given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/v1/users/" + userId)
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag)));
+
+        given()
+            .header("If-None-Match", etag)
+            .when()
+            .get("/api/v1/users/999999")
+            .then()
+            .statusCode(404);
+    }
+
+    @Test
+    @Order(38)
+    void testUpdateUserWithIfMatch() {
+        UserCreateRequest request = new UserCreateRequest();
+        request.username = "if_match_user";
+        request.email = "if_match_user@example.com";
+        request.name = "If-Match User";
+
+        Response created = given()
+            .contentType(ContentType.JSON)
+            .body(request)
+            .when()
+            .post("/api/v1/users");
+        long userId = created.then().statusCode(201).extract().jsonPath().getLong("id");
+        String etag = created.header("ETag");
+
+        UserUpdateRequest update = new UserUpdateRequest();
+        update.name = "If-Match User (renamed)";
+
+        String updatedEtag = given()
+            .contentType(ContentType.JSON)
+            .header("If-Match", etag)
+            .body(update)
+            .when()
+            .put("/api/v1/users/" + userId)
+            .then()
+            .statusCode(200)
+            .body("name", equalTo(update.name))
+            .extract()
+            .header("ETag");
+        Assertions.assertNotEquals(etag, updatedEtag);
+
+        given()
+            .header("If-None-Match", etag)
+            .when()
+            .get("/api/v1/users/" + userId)
+            .then()
+            .statusCode(200)
+            .header("ETag", equalTo(updatedEtag));
+
+        // A client holding the old tag cannot overwrite the rename
+        UserUpdateRequest staleUpdate = new UserUpdateRequest();
+        staleUpdate.name = "Lost Update";
+
+        given()
+            .contentType(ContentType.JSON)
+            .header("If-Match", etag)
+            .body(staleUpdate)
+            .when()
+            .put("/api/v1/users/" + userId)
+            .then()
+            .statusCode(412)
+            .body("error", containsString("modified"));
+
+        given()
+            .when()
+            .get("/api/v1/users/" + userId)
+            .then()
+            .statusCode(200)
+            .body("name", equalTo(update.name));
+    }
+
+    @Test
+    @Order(39)
+    void testGetUserServedFromResponseCache() {
+        long userId = SeedData.userWithTodos("json_cache_owner", 0);
+
+        given().when().get("/api/v1/users/" + userId).then().statusCode(200);
+
+        QueryBudget.of(sessionFactory)
+            .maxStatements(0)
+            .maxEntityLoads(0)
+            .verify("GET /api/v1/users/{id} cached", () -> given()
+                .when()
+                .get("/api/v1/users/" + userId)
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .header("ETag", notNullValue())
+                .body("username", equalTo("json_cache_owner")));
+
+        UserUpdateRequest update = new UserUpdateRequest();
+        update.email = "json_cache_owner_new@example.com";
+        given().contentType(ContentType.JSON).body(update).when().put("/api/v1/users/" + userId)
+            .then().statusCode(200);
+        given().when().get("/api/v1/users/" + userId).then().statusCode(200)
+            .body("email", equalTo(update.email));
+
+        given().when().delete("/api/v1/users/" + userId).then().statusCode(204);
+        given().when().get("/api/v1/users/" + userId).then().statusCode(404);
+    }
 }
@@ -0,0 +1,34 @@
+package org.swiftbeard.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+
+/**
+ * Unit tests for VirtualThreadsResource.
+ * The test profile enables virtual threads, so requests run on them.
+ */
+@QuarkusTest
+class VirtualThreadsResourceTest {
+
+    @Test
+    void testDiagnosticsReportVirtualThreadMode() {
+        given().when().get("/api/v1/users/1").then().statusCode(200);
+
+        given()
+            .when()
+            .get("/api/v1/diagnostics/virtual-threads")
+            .then()
+            .statusCode(200)
+            .contentType(ContentType.JSON)
+            .body("virtualThreadsEnabled", equalTo(true))
+            .body("currentThreadVirtual", equalTo(true))
+            .body("connectionLimit.limit", equalTo(20))
+            .body("connectionLimit.inFlight", equalTo(0))
+            .body("pinning.monitorRunning", equalTo(true))
+            .body("pinning.sites", notNullValue());
+    }
+}